@@ -0,0 +1,147 @@
+package com.grivera.bench;
+
+import com.grivera.generator.ConcurrentPacketSimulation;
+import com.grivera.generator.PacketSimulation;
+import com.grivera.generator.SensorNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a full allocation trial in which every Data Node is an agent that sends its packets one at a time to
+ * Storage Nodes, starting from a random one, until all of its packets are stored. The agents are split over a
+ * pool of threads that all send at once, through ConcurrentPacketSimulation or through a PacketSimulation
+ * behind a single lock.
+ *
+ * <p></p>
+ *
+ * Agents sets q and m so the Storage Nodes have exactly enough space for every packet at every dataRatio
+ * (q = s / g and m = p / g, where g = gcd(p, s) for p Data Nodes and s Storage Nodes), so late agents compete for
+ * the last free Storage Nodes. With p = s that is q = m = 1; with dataRatio = 0.1 it is q = 9 and m = 1.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ContentionBenchmark {
+
+    @FunctionalInterface
+    interface Sender {
+        boolean trySendPackets(int dn, int sn, int packets);
+    }
+
+    @FunctionalInterface
+    interface PacketsLeft {
+        int get(int dn);
+    }
+
+    @State(Scope.Benchmark)
+    public static class Agents {
+
+        @Param({"1", "4", "16"})
+        public int threads;
+
+        ExecutorService pool;
+        ConcurrentPacketSimulation concurrent;
+        PacketSimulation locked;
+        int[] dataNodes;
+        int[] storageNodes;
+
+        @Setup(Level.Trial)
+        public void setUp(NetworkState state) {
+            int p = state.network.getDataNodes().size();
+            int s = state.network.getStorageNodes().size();
+            int g = gcd(p, s);
+            state.network.setOverflowPackets(s / g);
+            state.network.setStorageCapacity(p / g);
+
+            this.pool = Executors.newFixedThreadPool(this.threads);
+            this.concurrent = ConcurrentPacketSimulation.of(state.network);
+            this.locked = PacketSimulation.of(state.network);
+            this.dataNodes = state.network.getDataNodes().stream().mapToInt(SensorNode::getUuid).toArray();
+            this.storageNodes = state.network.getStorageNodes().stream().mapToInt(SensorNode::getUuid).toArray();
+        }
+
+        @Setup(Level.Invocation)
+        public void reset() {
+            this.concurrent.reset();
+            this.locked.reset();
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            this.pool.shutdownNow();
+        }
+
+        private static int gcd(int a, int b) {
+            while (b != 0) {
+                int r = a % b;
+                a = b;
+                b = r;
+            }
+            return a;
+        }
+
+        /* Runs every agent, with thread t running the Data Nodes t, t + threads, t + 2 * threads, ... */
+        void run(Sender sender, PacketsLeft packetsLeft) throws InterruptedException, ExecutionException {
+            List<Future<?>> agents = new ArrayList<>(this.threads);
+            for (int t = 0; t < this.threads; t++) {
+                int first = t;
+                agents.add(this.pool.submit(() -> {
+                    SplittableRandom rand = new SplittableRandom(NetworkState.SEED + first);
+                    for (int i = first; i < this.dataNodes.length; i += this.threads) {
+                        int dn = this.dataNodes[i];
+                        int next = rand.nextInt(this.storageNodes.length);
+                        while (packetsLeft.get(dn) > 0) {
+                            if (!sender.trySendPackets(dn, this.storageNodes[next], 1)) {
+                                next = (next + 1 == this.storageNodes.length) ? 0 : next + 1;
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> agent : agents) {
+                agent.get();
+            }
+        }
+    }
+
+    @Benchmark
+    public long compareAndSet(Agents agents) throws InterruptedException, ExecutionException {
+        ConcurrentPacketSimulation sim = agents.concurrent;
+        agents.run(sim::trySendPackets, sim::getPacketsLeft);
+        return sim.getEnergy();
+    }
+
+    @Benchmark
+    public long singleLock(Agents agents) throws InterruptedException, ExecutionException {
+        PacketSimulation sim = agents.locked;
+        agents.run(
+                (dn, sn, packets) -> {
+                    synchronized (sim) {
+                        return sim.trySendPackets(dn, sn, packets);
+                    }
+                },
+                dn -> {
+                    synchronized (sim) {
+                        return sim.getPacketsLeft(dn);
+                    }
+                }
+        );
+        return sim.getEnergy();
+    }
+}
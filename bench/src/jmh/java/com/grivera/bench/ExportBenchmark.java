@@ -0,0 +1,45 @@
+package com.grivera.bench;
+
+import com.grivera.generator.CostMatrix;
+import com.grivera.generator.SensorNetwork;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures computing the cost matrix and writing the DIMACS flow network, separately.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExportBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Export {
+        SensorNetwork network;
+
+        /* The network caches its cost matrix, so saveAsCsInp only measures writing */
+        @Setup
+        public void setUp(NetworkState state) {
+            this.network = state.network;
+            this.network.getCostMatrix();
+        }
+    }
+
+    @Benchmark
+    public CostMatrix costMatrix(NetworkState state) {
+        return CostMatrix.of(state.network);
+    }
+
+    @Benchmark
+    public void saveAsCsInp(Export export) throws IOException {
+        export.network.saveAsCsInp(OutputStream.nullOutputStream());
+    }
+}
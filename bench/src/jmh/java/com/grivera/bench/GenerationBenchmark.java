@@ -0,0 +1,27 @@
+package com.grivera.bench;
+
+import com.grivera.generator.SensorNetwork;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures generating a random connected network and checking that a network is connected.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GenerationBenchmark {
+
+    @Benchmark
+    public SensorNetwork generate(NetworkState state) {
+        return state.generate();
+    }
+
+    @Benchmark
+    public boolean isConnected(NetworkState state) {
+        return state.network.isConnected();
+    }
+}
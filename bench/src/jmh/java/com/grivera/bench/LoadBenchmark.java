@@ -0,0 +1,136 @@
+package com.grivera.bench;
+
+import com.grivera.generator.SensorNetwork;
+import com.grivera.io.NetworkData;
+import com.grivera.io.SnReader;
+import com.grivera.io.SnbFile;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Random;
+import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures loading a network file: parsing alone, and parsing plus building the network.
+ * scannerParse is the Scanner-based loop SensorNetwork used before SnReader, kept as a baseline.
+ *
+ * <p></p>
+ *
+ * The *LargeSn benchmarks load a much larger .sn file (1M nodes by default) than NetworkState generates,
+ * written straight to disk since generating a connected network of that size would dominate the trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LoadBenchmark {
+
+    /**
+     * A .sn file of nodeCount random nodes (every other one a Data Node) at a density of one node per square
+     * meter and Tr = 1, written once per trial.
+     */
+    @State(Scope.Benchmark)
+    public static class LargeSnFile {
+
+        @Param({"1000000"})
+        public int nodeCount;
+
+        public File snFile;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            double width = Math.sqrt(this.nodeCount);
+            Random rand = new Random(NetworkState.SEED);
+
+            this.snFile = File.createTempFile("bench", ".sn");
+            try (PrintWriter pw = new PrintWriter(this.snFile)) {
+                pw.printf("%f %f %f\n", width, width, 1.0);
+                pw.printf("%d %d\n", 1, 1);
+                pw.printf("%d %d\n", this.nodeCount, this.nodeCount / 2);
+                for (int i = 0; i < this.nodeCount; i++) {
+                    pw.printf("%s %f %f\n", (i % 2 == 0) ? 'd' : 's',
+                            width * rand.nextDouble(), width * rand.nextDouble()
+                    );
+                }
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            this.snFile.delete();
+        }
+    }
+
+    @Benchmark
+    public NetworkData readSn(NetworkState state) throws IOException {
+        return SnReader.read(state.snFile.getPath());
+    }
+
+    @Benchmark
+    public NetworkData readSnb(NetworkState state) throws IOException {
+        return SnbFile.read(state.snbFile.getPath());
+    }
+
+    @Benchmark
+    public SensorNetwork fromSn(NetworkState state) {
+        return SensorNetwork.from(state.snFile.getPath());
+    }
+
+    @Benchmark
+    public SensorNetwork fromSnb(NetworkState state) {
+        return SensorNetwork.fromSnb(state.snbFile.getPath());
+    }
+
+    @Benchmark
+    public double scannerParse(NetworkState state) throws IOException {
+        return scannerParse(state.snFile);
+    }
+
+    @Benchmark
+    public NetworkData readLargeSn(LargeSnFile file) throws IOException {
+        return SnReader.read(file.snFile.getPath());
+    }
+
+    @Benchmark
+    public SensorNetwork fromLargeSn(LargeSnFile file) {
+        return SensorNetwork.from(file.snFile.getPath());
+    }
+
+    @Benchmark
+    public double scannerParseLargeSn(LargeSnFile file) throws IOException {
+        return scannerParse(file.snFile);
+    }
+
+    /* The .sn parsing loop SensorNetwork used before SnReader */
+    private static double scannerParse(File file) throws IOException {
+        try (Scanner fileScanner = new Scanner(file)) {
+            fileScanner.nextDouble();
+            fileScanner.nextDouble();
+            fileScanner.nextDouble();
+            fileScanner.nextLine();
+            fileScanner.nextInt();
+            fileScanner.nextInt();
+            fileScanner.nextLine();
+            int N = fileScanner.nextInt();
+            fileScanner.nextLine();
+
+            double sum = 0;
+            String[] lineArgs;
+            for (int i = 0; i < N; i++) {
+                lineArgs = fileScanner.nextLine().split(" ");
+                sum += Double.parseDouble(lineArgs[1]) + Double.parseDouble(lineArgs[2]);
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.grivera.bench;
+
+import com.grivera.generator.GenerationMode;
+import com.grivera.generator.SensorNetwork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * A seeded random network shared by the benchmarks, saved as both .sn and .snb for the loading benchmarks.
+ *
+ * <p></p>
+ *
+ * The field grows with N so the node density stays the same, and Tr is chosen to give each node
+ * about degree neighbors. q is 1 and m is the smallest capacity that keeps the network feasible.
+ */
+@State(Scope.Benchmark)
+public class NetworkState {
+
+    static final long SEED = 42;
+
+    @Param({"1000", "10000"})
+    public int nodeCount;
+
+    /* Expected number of neighbors per node */
+    @Param({"8", "24"})
+    public int degree;
+
+    /* Fraction of the nodes that are Data Nodes (p / N) */
+    @Param({"0.1", "0.5"})
+    public double dataRatio;
+
+    public double width;
+    public double transmissionRange;
+    public int dataNodeCount;
+    public int storageCapacity;
+
+    public SensorNetwork network;
+    public File snFile;
+    public File snbFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        /* 100 square meters per node, and pi * Tr^2 of that area holds degree nodes */
+        this.width = 10 * Math.sqrt(this.nodeCount);
+        this.transmissionRange = 10 * Math.sqrt(this.degree / Math.PI);
+        this.dataNodeCount = Math.max(1, (int) (this.nodeCount * this.dataRatio));
+        int storageNodeCount = this.nodeCount - this.dataNodeCount;
+        this.storageCapacity = Math.max(1, (this.dataNodeCount + storageNodeCount - 1) / storageNodeCount);
+
+        this.network = this.generate();
+
+        this.snFile = File.createTempFile("bench", ".sn");
+        this.snbFile = File.createTempFile("bench", ".snb");
+        this.network.save(this.snFile.getPath());
+        this.network.saveAsSnb(this.snbFile.getPath());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        /* Along with any cost matrix sidecar a benchmark wrote next to them */
+        for (File file : new File[] {this.snFile, this.snbFile}) {
+            file.delete();
+            new File(file.getPath() + ".costs").delete();
+        }
+    }
+
+    /* Sparse networks are rarely connected on the first placement, so the misplaced nodes are repaired */
+    public SensorNetwork generate() {
+        return SensorNetwork.of(this.width, this.width, this.nodeCount, this.transmissionRange, this.dataNodeCount,
+                1, this.storageCapacity, GenerationMode.REPAIR, SEED
+        );
+    }
+}
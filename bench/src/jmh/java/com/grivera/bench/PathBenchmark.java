@@ -0,0 +1,95 @@
+package com.grivera.bench;
+
+import com.grivera.generator.DataNode;
+import com.grivera.generator.SensorNetwork;
+import com.grivera.generator.SensorNode;
+import com.grivera.generator.ShortestPathAlgorithm;
+import com.grivera.generator.StorageNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures min-cost queries between random pairs of nodes, with each ShortestPathAlgorithm.
+ *
+ * <p></p>
+ *
+ * Every query runs a real search: the network has no cost matrix (or sidecar file) to read DN->SN costs from,
+ * calculateMinCost is asked for Storage Node pairs, which the matrix never holds, and its cache only keeps
+ * a single cost.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PathBenchmark {
+
+    private static final int PAIR_COUNT = 1 << 12;
+
+    @State(Scope.Thread)
+    public static class Queries {
+
+        @Param({"HEAP", "DIAL"})
+        public ShortestPathAlgorithm algorithm;
+
+        SensorNetwork network;
+        SensorNode[] from, to;
+        SensorNode[] storageFrom, storageTo;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp(NetworkState state) {
+            this.network = SensorNetwork.fromSnb(state.snbFile.getPath());
+            this.network.setCostMatrixFile(null);
+            this.network.setCostCacheCapacity(1);
+            this.network.setShortestPathAlgorithm(this.algorithm);
+
+            List<DataNode> dNodes = this.network.getDataNodes();
+            List<StorageNode> sNodes = this.network.getStorageNodes();
+            SplittableRandom rand = new SplittableRandom(NetworkState.SEED);
+            this.from = new SensorNode[PAIR_COUNT];
+            this.to = new SensorNode[PAIR_COUNT];
+            this.storageFrom = new SensorNode[PAIR_COUNT];
+            this.storageTo = new SensorNode[PAIR_COUNT];
+            for (int i = 0; i < PAIR_COUNT; i++) {
+                this.from[i] = dNodes.get(rand.nextInt(dNodes.size()));
+                this.to[i] = sNodes.get(rand.nextInt(sNodes.size()));
+                this.storageFrom[i] = sNodes.get(rand.nextInt(sNodes.size()));
+                this.storageTo[i] = sNodes.get(rand.nextInt(sNodes.size()));
+            }
+            this.next = 0;
+        }
+
+        int nextPair() {
+            int i = this.next;
+            this.next = (i + 1) & (PAIR_COUNT - 1);
+            return i;
+        }
+    }
+
+    @Benchmark
+    public List<SensorNode> getMinCostPath(Queries queries) {
+        int i = queries.nextPair();
+        return queries.network.getMinCostPath(queries.from[i], queries.to[i]);
+    }
+
+    @Benchmark
+    public int calculateMinCost(Queries queries) {
+        int i = queries.nextPair();
+        return queries.network.calculateMinCost(queries.storageFrom[i], queries.storageTo[i]);
+    }
+
+    /* Single-source search to every node, as used for each row of the cost matrix */
+    @Benchmark
+    public int[] calculateMinCosts(Queries queries) {
+        return queries.network.calculateMinCosts(queries.from[queries.nextPair()]);
+    }
+}
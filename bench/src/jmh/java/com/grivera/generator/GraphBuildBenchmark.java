@@ -0,0 +1,24 @@
+package com.grivera.generator;
+
+import com.grivera.bench.NetworkState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building the adjacency graph of a network from its nodes on its own.
+ * It lives in com.grivera.generator because initGraph is package-private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GraphBuildBenchmark {
+
+    @Benchmark
+    public Object initGraph(NetworkState state) {
+        SensorNetwork network = state.network;
+        return network.initGraph(network.getSensorNodes());
+    }
+}
@@ -0,0 +1,91 @@
+package com.grivera.generator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the heap and Dial's bucket queue on the search engine itself, with no network methods or caches in
+ * between, over a sweep of average degrees wide enough to show where one overtakes the other.
+ * It lives in com.grivera.generator because ShortestPathEngine is package-private.
+ *
+ * <p></p>
+ *
+ * Run with: gradle :bench:jmh -Pjmh.includes=ShortestPathBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ShortestPathBenchmark {
+
+    private static final long SEED = 42;
+    private static final int SOURCE_COUNT = 1 << 10;
+
+    @State(Scope.Thread)
+    public static class Searches {
+
+        @Param({"10000"})
+        public int nodeCount;
+
+        /* Expected number of neighbors per node */
+        @Param({"4", "8", "16", "32", "64", "128"})
+        public int degree;
+
+        @Param({"HEAP", "DIAL"})
+        public ShortestPathAlgorithm algorithm;
+
+        ShortestPathEngine engine;
+        int[] sources, targets;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            /* The same density as NetworkState: 100 square meters per node, pi * Tr^2 of it holds degree nodes */
+            double width = 10 * Math.sqrt(this.nodeCount);
+            double tr = 10 * Math.sqrt(this.degree / Math.PI);
+            SensorNetwork network = SensorNetwork.of(width, width, this.nodeCount, tr, this.nodeCount / 10, 1, 1,
+                    GenerationMode.REPAIR, SEED
+            );
+            this.engine = new ShortestPathEngine(network.getGraph(), this.algorithm);
+
+            SplittableRandom rand = new SplittableRandom(SEED);
+            this.sources = new int[SOURCE_COUNT];
+            this.targets = new int[SOURCE_COUNT];
+            for (int i = 0; i < SOURCE_COUNT; i++) {
+                this.sources[i] = 1 + rand.nextInt(this.nodeCount);
+                this.targets[i] = 1 + rand.nextInt(this.nodeCount);
+            }
+            this.next = 0;
+        }
+
+        int nextSource() {
+            int i = this.next;
+            this.next = (i + 1) & (SOURCE_COUNT - 1);
+            return i;
+        }
+    }
+
+    /* Plain Dijkstra to every node, as for each row of the cost matrix */
+    @Benchmark
+    public int searchFrom(Searches searches) {
+        int i = searches.nextSource();
+        searches.engine.searchFrom(searches.sources[i]);
+        return searches.engine.getSettledCount();
+    }
+
+    /* A* between two random nodes, as for getMinCostPath */
+    @Benchmark
+    public int searchTo(Searches searches) {
+        int i = searches.nextSource();
+        searches.engine.searchTo(searches.sources[i], searches.targets[i]);
+        return searches.engine.getDistance(searches.targets[i]);
+    }
+}
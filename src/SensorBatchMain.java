@@ -0,0 +1,261 @@
+import com.grivera.cli.BatchJob;
+import com.grivera.generator.BatchGenerator;
+import com.grivera.generator.GenerationMode;
+import com.grivera.generator.NetworkParameters;
+import com.grivera.generator.NetworkRenderer;
+import com.grivera.generator.SensorNetwork;
+import com.grivera.util.Metrics;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Headless entry point for batch runs: generates or loads many networks, writes their .sn/.inp files
+ * (and with png/svg, an image of each network) and exits.
+ * It never touches JavaFX, so it runs on servers without a display or the JavaFX SDK.
+ *
+ * <p></p>
+ *
+ * Usage:
+ * <p></p>
+ * SensorBatchMain [--threads=T] [--metrics[=json]] generate width=100 length=100 N=100 tr=25 p=10 q=5 m=10 ...
+ * <p>
+ * SensorBatchMain [--threads=T] [--metrics[=json]] load [q=5] [m=10] [out=dir] [solve] [costs] [png] [svg] a.sn b.sn ...
+ * <p>
+ * SensorBatchMain [--threads=T] [--metrics[=json]] --jobs=jobs.txt
+ *
+ * @see BatchJob
+ */
+public class SensorBatchMain {
+
+    /**
+     * The entry point of a batch run.
+     * @param args command-line arguments
+     */
+    public static void main(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        String jobFile = null;
+        String metrics = null;
+        List<String> jobTokens = new ArrayList<>();
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].startsWith("--threads=")) {
+                    threads = Integer.parseInt(args[i].substring("--threads=".length()));
+                } else if (args[i].startsWith("--jobs=")) {
+                    jobFile = args[i].substring("--jobs=".length());
+                } else if (args[i].equals("--jobs") && i + 1 < args.length) {
+                    jobFile = args[++i];
+                } else if (args[i].equals("--metrics") || args[i].equals("--metrics=json")) {
+                    metrics = args[i];
+                } else {
+                    jobTokens.add(args[i]);
+                }
+            }
+
+            List<BatchJob> jobs = new ArrayList<>();
+            if (jobFile != null) {
+                jobs.addAll(BatchJob.parseFile(Path.of(jobFile)));
+            }
+            if (!jobTokens.isEmpty()) {
+                jobs.add(BatchJob.parse(jobTokens));
+            }
+            if (jobs.isEmpty()) {
+                printUsage();
+                System.exit(1);
+            }
+
+            if (metrics != null) {
+                Metrics.enable();
+            }
+            for (BatchJob job : jobs) {
+                switch (job.type()) {
+                    case GENERATE -> runGenerate(job, threads);
+                    case LOAD -> runLoad(job, threads);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.printf("ERROR: %s\n", e.getMessage());
+            System.exit(1);
+        }
+
+        if (metrics != null) {
+            System.out.println();
+            if (metrics.endsWith("=json")) {
+                System.out.println(Metrics.toJson());
+            } else {
+                Metrics.printSummary(System.out);
+            }
+        }
+    }
+
+    /**
+     * Generates count networks with the job's parameters and saves each as an .sn and an .inp file
+     * (and with png/svg, as an image).
+     * @param job the generate job
+     * @param threads the number of networks to generate at the same time
+     */
+    private static void runGenerate(BatchJob job, int threads) throws IOException {
+        NetworkParameters params = new NetworkParameters(
+                job.getDouble("width", 0), job.getDouble("length", 0), job.getInt("N", 0),
+                job.getDouble("tr", 0), job.getInt("p", 0), job.getInt("q", 0), job.getInt("m", 0)
+        );
+        int count = job.getInt("count", 1);
+        Path out = Path.of(job.getString("out", "."));
+        String prefix = job.getString("prefix", "sensor_network");
+
+        BatchGenerator generator = new BatchGenerator(threads);
+        generator.setGenerationMode(switch (job.getString("mode", "resample").toLowerCase()) {
+            case "resample" -> GenerationMode.RESAMPLE;
+            case "repair" -> GenerationMode.REPAIR;
+            default -> throw new IllegalArgumentException(
+                    String.format("Invalid mode \"%s\" (resample/repair)!", job.getString("mode", ""))
+            );
+        });
+        if (job.has("seed")) {
+            generator.setSeed(job.getLong("seed", 0));
+        }
+
+        Files.createDirectories(out);
+        List<Path> files = generator.generateAndSave(Collections.nCopies(count, params), out, prefix,
+                (file, network) -> render(job, file, network)
+        );
+        System.out.printf("Saved %d sensor networks in \"%s\"!\n", files.size(), out);
+    }
+
+    /**
+     * Loads every file of the job and saves its flow network as an .inp file with the same name
+     * (and with png/svg, an image of it), several files at a time.
+     * @param job the load job
+     * @param threads the number of files to load at the same time
+     */
+    private static void runLoad(BatchJob job, int threads) throws IOException {
+        Path out = job.has("out") ? Path.of(job.getString("out", ".")) : null;
+        if (out != null) {
+            Files.createDirectories(out);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, job.files().size())));
+        try {
+            List<Future<String>> loads = new ArrayList<>(job.files().size());
+            for (String fileName : job.files()) {
+                loads.add(pool.submit(() -> load(job, fileName, out)));
+            }
+            /* Reported in the order of the files, whichever finishes first */
+            for (Future<String> load : loads) {
+                System.out.println(load.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while loading!", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Loads one network file, saves its .inp file (and image) and describes it.
+     * @param job the load job
+     * @param fileName the network file
+     * @param out the directory to save in, or null for the network file's directory
+     * @return a line describing the network
+     */
+    private static String load(BatchJob job, String fileName, Path out) throws IOException {
+        SensorNetwork network = SensorNetwork.from(fileName);
+        /* The pool already keeps every thread busy, so each cost matrix is computed on its own thread */
+        network.setParallelism(1);
+        if (job.getBoolean("costs")) {
+            network.setCostMatrixFile(fileName);
+        }
+        if (job.has("q")) {
+            network.setOverflowPackets(job.getInt("q", 0));
+        }
+        if (job.has("m")) {
+            network.setStorageCapacity(job.getInt("m", 0));
+        }
+
+        Path file = Path.of(fileName);
+        Path inpFile = outputFile(file, out, ".inp");
+        try (FileChannel channel = FileChannel.open(inpFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            network.saveAsCsInp(channel);
+        }
+        render(job, file, network);
+
+        StringBuilder line = new StringBuilder(String.format("%s: N = %d, p = %d, connected = %b, feasible = %b",
+                fileName, network.getSensorNodes().size(), network.getDataNodes().size(),
+                network.isConnected(), network.isFeasible()
+        ));
+        if (job.getBoolean("solve") && network.isFeasible()) {
+            line.append(String.format(", min-cost = %d", network.calculateMinCostFlow().getTotalCost()));
+        }
+        line.append(String.format(" -> \"%s\"", inpFile));
+        return line.toString();
+    }
+
+    /**
+     * Renders a network as a PNG and/or SVG image if the job asked for them, from the network already in memory.
+     * @param job the job that may ask for images
+     * @param file the network's file, which the images are named after
+     * @param network the network to render
+     */
+    private static void render(BatchJob job, Path file, SensorNetwork network) throws IOException {
+        boolean png = job.getBoolean("png");
+        boolean svg = job.getBoolean("svg");
+        if (!png && !svg) {
+            return;
+        }
+
+        Path out = job.has("out") ? Path.of(job.getString("out", ".")) : null;
+        NetworkRenderer renderer = new NetworkRenderer(network, 640, 640);
+        if (png) {
+            renderer.saveAsPng(outputFile(file, out, ".png").toString());
+        }
+        if (svg) {
+            renderer.saveAsSvg(outputFile(file, out, ".svg").toString());
+        }
+    }
+
+    /**
+     * Returns the file with the same name as a network file but another extension.
+     * @param file the network file
+     * @param out the directory to put the file in, or null for the network file's directory
+     * @param extension the extension of the file
+     * @return the file
+     */
+    private static Path outputFile(Path file, Path out, String extension) {
+        String name = file.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        name = ((dot > 0) ? name.substring(0, dot) : name) + extension;
+        return (out != null) ? out.resolve(name) : file.resolveSibling(name);
+    }
+
+    /**
+     * Prints how to run a batch job.
+     */
+    private static void printUsage() {
+        System.out.println("Usage:");
+        System.out.println("  SensorBatchMain [--threads=T] [--metrics[=json]] generate width=X length=Y N=N tr=TR p=P q=Q m=M");
+        System.out.println("      [count=C] [seed=S] [mode=resample|repair] [out=DIR] [prefix=NAME] [png] [svg]");
+        System.out.println("  SensorBatchMain [--threads=T] [--metrics[=json]] load [q=Q] [m=M] [out=DIR] [solve] [costs] [png] [svg] FILE...");
+        System.out.println("  SensorBatchMain [--threads=T] [--metrics[=json]] --jobs=JOB_FILE");
+    }
+}
@@ -2,6 +2,7 @@ import com.grivera.generator.Network;
 import com.grivera.generator.SensorNetwork;
 import com.grivera.generator.SensorNetworkGraph;
 import com.grivera.generator.SensorNode;
+import com.grivera.util.Metrics;
 import javafx.application.Application;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
@@ -20,11 +21,25 @@ public class SensorToFlowNetworkMain extends Application {
 
     /**
      * The entry point of the application.
+     *
+     * <p></p>
+     *
+     * Pass --metrics to print how long each phase took when the program exits, or --metrics=json
+     * to print it as JSON.
+     *
      * @param args command-line arguments
      */
     public static void main(String[] args) {
         Network network;
 
+        for (String arg : args) {
+            if (arg.equals("--metrics") || arg.equals("--metrics=json")) {
+                boolean json = arg.endsWith("=json");
+                Metrics.enable();
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> printMetrics(json)));
+            }
+        }
+
         System.out.println("Please enter an option (F)ile/(G)enerate/(Q)uit:");
         System.out.print("(Q) > ");
         int option = keyboard.nextLine().charAt(0);
@@ -115,6 +130,20 @@ public class SensorToFlowNetworkMain extends Application {
         return SensorNetwork.from(fileName);
     }
 
+    /**
+     * Prints the time spent in each phase and the work counters.
+     * @param json whether to print the metrics as JSON instead of tables
+     * @see Metrics
+     */
+    private static void printMetrics(boolean json) {
+        System.out.println();
+        if (json) {
+            System.out.println(Metrics.toJson());
+        } else {
+            Metrics.printSummary(System.out);
+        }
+    }
+
     /**
      * Pretty Prints out a list table with the provided title.
      * @param list the list of elements to print
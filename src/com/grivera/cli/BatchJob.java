@@ -0,0 +1,169 @@
+package com.grivera.cli;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Represents one job of a headless batch run: generating networks, or loading network files.
+ *
+ * <p></p>
+ *
+ * A job is written as its type followed by key=value options, and for load jobs the files to load:
+ * <p></p>
+ * generate width=100 length=100 N=100 tr=25 p=10 q=5 m=10 count=20 seed=42 mode=repair out=nets prefix=net png
+ * <p>
+ * load q=5 m=10 out=flows solve svg a.sn b.sn c.snb
+ *
+ * <p></p>
+ *
+ * A job file holds one job per line; blank lines and lines starting with # are skipped.
+ *
+ * @param type what the job does
+ * @param options the key=value options of the job
+ * @param files the network files of a load job
+ */
+public record BatchJob(Type type, Map<String, String> options, List<String> files) {
+
+    public enum Type {
+        GENERATE, LOAD
+    }
+
+    private static final Set<String> GENERATE_KEYS =
+            Set.of("width", "length", "N", "tr", "p", "q", "m", "count", "seed", "mode", "out", "prefix",
+                    "png", "svg");
+    private static final Set<String> LOAD_KEYS = Set.of("q", "m", "out", "solve", "costs", "png", "svg");
+    private static final Set<String> REQUIRED_GENERATE_KEYS = Set.of("width", "length", "N", "tr", "p", "q", "m");
+
+    /**
+     * Parses a job from its tokens.
+     *
+     * @param tokens the job type, then its options and files
+     * @return the job
+     * @throws IllegalArgumentException if the job type or any option is invalid
+     */
+    public static BatchJob parse(List<String> tokens) {
+        if (tokens.isEmpty()) {
+            throw new IllegalArgumentException("Missing job type (generate/load)!");
+        }
+
+        Type type = switch (tokens.get(0).toLowerCase()) {
+            case "generate", "g" -> Type.GENERATE;
+            case "load", "l" -> Type.LOAD;
+            default -> throw new IllegalArgumentException(
+                    String.format("Invalid job type \"%s\" (generate/load)!", tokens.get(0))
+            );
+        };
+        Set<String> keys = (type == Type.GENERATE) ? GENERATE_KEYS : LOAD_KEYS;
+
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> files = new ArrayList<>();
+        for (String token : tokens.subList(1, tokens.size())) {
+            int equals = token.indexOf('=');
+            if (equals < 0) {
+                /* A bare option is a flag, anything else is a file */
+                if (keys.contains(token)) {
+                    options.put(token, "true");
+                } else {
+                    files.add(token);
+                }
+                continue;
+            }
+
+            String key = token.substring(0, equals);
+            if (!keys.contains(key)) {
+                throw new IllegalArgumentException(String.format("Invalid option \"%s\" for a %s job!",
+                        key, type.name().toLowerCase()));
+            }
+            options.put(key, token.substring(equals + 1));
+        }
+
+        if (type == Type.GENERATE) {
+            if (!files.isEmpty()) {
+                throw new IllegalArgumentException(String.format("Unexpected argument \"%s\"!", files.get(0)));
+            }
+            for (String key : REQUIRED_GENERATE_KEYS) {
+                if (!options.containsKey(key)) {
+                    throw new IllegalArgumentException(String.format("Missing option %s= for a generate job!", key));
+                }
+            }
+        } else if (files.isEmpty()) {
+            throw new IllegalArgumentException("A load job needs at least one network file!");
+        }
+        return new BatchJob(type, Collections.unmodifiableMap(options), List.copyOf(files));
+    }
+
+    /**
+     * Parses every job of a job file.
+     *
+     * @param file the job file
+     * @return the jobs in the order they appear
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if any job is invalid
+     */
+    public static List<BatchJob> parseFile(Path file) throws IOException {
+        List<BatchJob> jobs = new ArrayList<>();
+        List<String> lines = Files.readAllLines(file);
+        String line;
+        for (int i = 0; i < lines.size(); i++) {
+            line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            try {
+                jobs.add(parse(Arrays.asList(line.split("\\s+"))));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(String.format("Line %d: %s", i + 1, e.getMessage()), e);
+            }
+        }
+        return jobs;
+    }
+
+    public boolean has(String key) {
+        return this.options.containsKey(key);
+    }
+
+    public String getString(String key, String defaultValue) {
+        return this.options.getOrDefault(key, defaultValue);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        String value = this.options.get(key);
+        try {
+            return (value != null) ? Integer.parseInt(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Option %s=%s is not an integer!", key, value));
+        }
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = this.options.get(key);
+        try {
+            return (value != null) ? Long.parseLong(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Option %s=%s is not an integer!", key, value));
+        }
+    }
+
+    public double getDouble(String key, double defaultValue) {
+        String value = this.options.get(key);
+        try {
+            return (value != null) ? Double.parseDouble(value) : defaultValue;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(String.format("Option %s=%s is not a number!", key, value));
+        }
+    }
+
+    public boolean getBoolean(String key) {
+        String value = this.options.get(key);
+        return Boolean.parseBoolean(value);
+    }
+}
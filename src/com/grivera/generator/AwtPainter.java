@@ -0,0 +1,89 @@
+package com.grivera.generator;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+
+/**
+ * Paints with Java2D, i.e. onto a BufferedImage. Java2D does not need a display, so it works on headless machines.
+ */
+final class AwtPainter implements Painter {
+
+    private final Graphics2D g;
+    private final Path2D.Double path = new Path2D.Double();
+    private final Ellipse2D.Double oval = new Ellipse2D.Double();
+    private final Rectangle2D.Double rect = new Rectangle2D.Double();
+    private final FontMetrics metrics;
+
+    AwtPainter(Graphics2D g) {
+        this.g = g;
+        this.g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        this.g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        this.g.setRenderingHint(RenderingHints.KEY_STROKE_CONTROL, RenderingHints.VALUE_STROKE_PURE);
+        this.g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 12));
+        this.g.setStroke(new BasicStroke(1));
+        this.metrics = this.g.getFontMetrics();
+    }
+
+    @Override
+    public void setStroke(int rgb) {
+        this.g.setColor(new Color(rgb));
+    }
+
+    @Override
+    public void setLineWidth(double width) {
+        this.g.setStroke(new BasicStroke((float) width));
+    }
+
+    @Override
+    public void beginPath() {
+        this.path.reset();
+    }
+
+    @Override
+    public void moveTo(double x, double y) {
+        this.path.moveTo(x, y);
+    }
+
+    @Override
+    public void lineTo(double x, double y) {
+        this.path.lineTo(x, y);
+    }
+
+    @Override
+    public void stroke() {
+        this.g.draw(this.path);
+    }
+
+    @Override
+    public void strokeOval(double x, double y, double width, double height) {
+        this.oval.setFrame(x, y, width, height);
+        this.g.draw(this.oval);
+    }
+
+    @Override
+    public void fillRect(double x, double y, double width, double height, int argb) {
+        Color stroke = this.g.getColor();
+        this.g.setColor(new Color(argb, true));
+        this.rect.setRect(x, y, width, height);
+        this.g.fill(this.rect);
+        this.g.setColor(stroke);
+    }
+
+    @Override
+    public void fillText(String text, double x, double y) {
+        Color stroke = this.g.getColor();
+        this.g.setColor(Color.BLACK);
+        this.g.drawString(text,
+                (float) (x - this.metrics.stringWidth(text) / 2.0),
+                (float) (y + (this.metrics.getAscent() - this.metrics.getDescent()) / 2.0)
+        );
+        this.g.setColor(stroke);
+    }
+}
@@ -0,0 +1,212 @@
+package com.grivera.generator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates, validates and saves many random Sensor Networks at once on a fixed thread pool,
+ * i.e. for parameter sweeps over N, Tr and p.
+ *
+ * <p></p>
+ *
+ * Every network allocates its own node ids and gets its own random generator, split from a single root
+ * generator in sweep order before any work starts, so networks built on different threads never share state.
+ * With a seed, a sweep gives the same networks no matter how many threads generate it.
+ * Unlike SensorNetwork.of, failures are reported to the caller instead of exiting the program.
+ *
+ * @see NetworkParameters
+ * @see SensorNetwork
+ */
+public final class BatchGenerator {
+
+    /**
+     * Functional interface for using each network of a sweep right after it is saved, while it is still in memory.
+     */
+    @FunctionalInterface
+    public interface SaveListener {
+        void saved(Path snFile, SensorNetwork network) throws IOException;
+    }
+
+    private final int threads;
+    private GenerationMode mode = GenerationMode.RESAMPLE;
+    private Long seed;
+
+    /**
+     * Creates a batch generator that uses all available processors.
+     */
+    public BatchGenerator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a batch generator.
+     *
+     * @param threads the number of networks to generate at the same time
+     */
+    public BatchGenerator(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException(String.format("Invalid thread count %d!", threads));
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Sets how the generated networks are made connected.
+     *
+     * @param mode how to place the nodes again while a network is not connected
+     */
+    public void setGenerationMode(GenerationMode mode) {
+        this.mode = mode;
+    }
+
+    /**
+     * Seeds the batch so every sweep gives the same networks each time it is generated.
+     *
+     * @param seed the seed of the root random generator
+     */
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Generates count networks with the same parameters.
+     *
+     * @param params the parameters of every network
+     * @param count the number of networks to generate
+     * @return the validated networks
+     */
+    public List<SensorNetwork> generate(NetworkParameters params, int count) {
+        return this.generate(Collections.nCopies(count, params));
+    }
+
+    /**
+     * Generates one network for each set of parameters.
+     *
+     * @param sweep the parameters of each network
+     * @return the validated networks, in the same order as sweep
+     * @throws IllegalArgumentException if any parameters are not feasible
+     * @throws IllegalStateException if any network could not be made connected
+     */
+    public List<SensorNetwork> generate(List<NetworkParameters> sweep) {
+        SplittableRandom root = this.createRoot();
+        List<Callable<SensorNetwork>> tasks = new ArrayList<>(sweep.size());
+        for (NetworkParameters params : sweep) {
+            SplittableRandom rand = root.split();
+            tasks.add(() -> this.generateOne(params, rand));
+        }
+        return this.runAll(tasks);
+    }
+
+    /**
+     * Generates one network for each set of parameters and saves it as prefix_0000.sn, prefix_0001.sn, ...
+     * in the directory, along with its flow network as prefix_0000.inp, prefix_0001.inp, ...
+     *
+     * <p></p>
+     *
+     * Networks are not kept once they are saved, so sweeps can be larger than would fit in memory at once.
+     *
+     * @param sweep the parameters of each network
+     * @param directory the directory to save the files in
+     * @param prefix the start of every file name
+     * @return the paths of the .sn files, in the same order as sweep
+     * @throws UncheckedIOException if any file could not be written
+     */
+    public List<Path> generateAndSave(List<NetworkParameters> sweep, Path directory, String prefix) {
+        return this.generateAndSave(sweep, directory, prefix, (snFile, network) -> {});
+    }
+
+    /**
+     * Same as generateAndSave, but also passes every network to the listener once its files are saved,
+     * on the thread that generated it.
+     *
+     * @param sweep the parameters of each network
+     * @param directory the directory to save the files in
+     * @param prefix the start of every file name
+     * @param listener what to do with each saved network, i.e. render it
+     * @return the paths of the .sn files, in the same order as sweep
+     * @throws UncheckedIOException if any file could not be written, or the listener failed to write one
+     */
+    public List<Path> generateAndSave(List<NetworkParameters> sweep, Path directory, String prefix,
+                                      SaveListener listener) {
+        SplittableRandom root = this.createRoot();
+        List<Callable<Path>> tasks = new ArrayList<>(sweep.size());
+        for (int i = 0; i < sweep.size(); i++) {
+            NetworkParameters params = sweep.get(i);
+            SplittableRandom rand = root.split();
+            String name = String.format("%s_%04d", prefix, i);
+            tasks.add(() -> {
+                SensorNetwork network = this.generateOne(params, rand);
+                /* The pool already keeps every thread busy, so each cost matrix is computed on its own thread */
+                network.setParallelism(1);
+
+                Path snFile = directory.resolve(name + ".sn");
+                network.writeSn(snFile.toString());
+                try (FileChannel channel = FileChannel.open(directory.resolve(name + ".inp"),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    network.saveAsCsInp(channel);
+                }
+                listener.saved(snFile, network);
+                return snFile;
+            });
+        }
+        return this.runAll(tasks);
+    }
+
+    private SplittableRandom createRoot() {
+        return (this.seed != null) ? new SplittableRandom(this.seed) : new SplittableRandom();
+    }
+
+    private SensorNetwork generateOne(NetworkParameters params, SplittableRandom rand) {
+        SensorNetwork network = SensorNetwork.generate(params, this.mode, rand);
+        if (!network.isConnected()) {
+            throw new IllegalStateException("Generated network is not connected!");
+        }
+        if (!network.isFeasible()) {
+            throw new IllegalStateException("Generated network is not feasible!");
+        }
+        return network;
+    }
+
+    /* Runs the tasks on a new pool and returns their results in order, stopping at the first failure */
+    private <T> List<T> runAll(List<Callable<T>> tasks) {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(this.threads, Math.max(1, tasks.size())));
+        try {
+            List<Future<T>> futures = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks) {
+                futures.add(pool.submit(task));
+            }
+
+            List<T> results = new ArrayList<>(tasks.size());
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof IOException ioException) {
+                throw new UncheckedIOException(ioException);
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating networks!", e);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.grivera.generator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents a packet-allocation simulation in which many threads send packets at once, i.e. with every Data Node
+ * acting as its own agent on its own thread.
+ *
+ * <p></p>
+ *
+ * A send reserves the packets on the Data Node and then the space on the Storage Node, each with a
+ * compare-and-set that only succeeds while enough is left, and gives the packets back if the space cannot be
+ * reserved. The space left on a Storage Node therefore never drops below 0, however many threads send to it,
+ * and no send waits on a lock. Counters of different nodes are kept a cache line apart, so agents sending to
+ * different nodes do not slow each other down.
+ *
+ * <p></p>
+ *
+ * Sends and reads are thread-safe; reset() is not, and must only be called while no thread is sending.
+ *
+ * @see PacketSimulation
+ */
+public final class ConcurrentPacketSimulation {
+
+    /* Ints per node, so the counters of two nodes never share a 64-byte cache line */
+    private static final int STRIDE = 16;
+
+    private final AtomicIntegerArray packetsLeft;
+    private final AtomicIntegerArray spaceLeft;
+    private final int[] initialPacketsLeft;
+    private final int[] initialSpaceLeft;
+    private final int[] rowOfUuid;
+    private final int[] colOfUuid;
+    private final int[] costs;
+    private final int cols;
+
+    private final LongAdder energy = new LongAdder();
+    private final LongAdder transfers = new LongAdder();
+
+    private ConcurrentPacketSimulation(int[] packetsLeft, int[] spaceLeft, int[] rowOfUuid, int[] colOfUuid,
+                                       int[] costs, int cols) {
+        this.initialPacketsLeft = packetsLeft;
+        this.initialSpaceLeft = spaceLeft;
+        this.packetsLeft = new AtomicIntegerArray(packetsLeft.length * STRIDE);
+        this.spaceLeft = new AtomicIntegerArray(spaceLeft.length * STRIDE);
+        this.rowOfUuid = rowOfUuid;
+        this.colOfUuid = colOfUuid;
+        this.costs = costs;
+        this.cols = cols;
+        this.reset();
+    }
+
+    /**
+     * Starts a simulation in which every Data Node has all of its overflow packets and every Storage Node is empty.
+     * The network's cost matrix is computed first if it has not been yet.
+     *
+     * @param network the network to simulate
+     * @return the simulation
+     */
+    public static ConcurrentPacketSimulation of(Network network) {
+        CostMatrix matrix = network.getCostMatrix();
+        List<DataNode> dNodes = network.getDataNodes();
+        List<StorageNode> sNodes = network.getStorageNodes();
+
+        int size = network.getSensorNodes().size() + 1;
+        int[] packetsLeft = new int[size];
+        int[] spaceLeft = new int[size];
+        int[] rowOfUuid = new int[size];
+        int[] colOfUuid = new int[size];
+        Arrays.fill(rowOfUuid, -1);
+        Arrays.fill(colOfUuid, -1);
+
+        for (DataNode dn : dNodes) {
+            packetsLeft[dn.getUuid()] = dn.getOverflowPackets();
+            rowOfUuid[dn.getUuid()] = matrix.getRowOf(dn.getUuid());
+        }
+        for (StorageNode sn : sNodes) {
+            spaceLeft[sn.getUuid()] = sn.getCapacity();
+            colOfUuid[sn.getUuid()] = matrix.getColumnOf(sn.getUuid());
+        }
+        return new ConcurrentPacketSimulation(packetsLeft, spaceLeft, rowOfUuid, colOfUuid, matrix.getCosts(),
+                matrix.getColumnCount());
+    }
+
+    private boolean isTransfer(int dn, int sn) {
+        return dn > 0 && dn < this.rowOfUuid.length && this.rowOfUuid[dn] >= 0 &&
+                sn > 0 && sn < this.colOfUuid.length && this.colOfUuid[sn] >= 0;
+    }
+
+    /* Takes amount from counter i if at least that much is left */
+    private static boolean reserve(AtomicIntegerArray counters, int i, int amount) {
+        int left;
+        do {
+            left = counters.get(i);
+            if (left < amount) {
+                return false;
+            }
+        } while (!counters.weakCompareAndSetVolatile(i, left, left - amount));
+        return true;
+    }
+
+    /**
+     * Tests if a Data Node can send packets to a Storage Node right now. Other threads may send in between,
+     * so use trySendPackets() to check and send at once.
+     *
+     * @param dn the uuid of the Data Node
+     * @param sn the uuid of the Storage Node
+     * @param packets the number of packets to send
+     * @return true if and only if the Data Node has that many packets left and the Storage Node that much space
+     * left; otherwise false
+     */
+    public boolean canSendPackets(int dn, int sn, int packets) {
+        return this.isTransfer(dn, sn) && packets >= 0 &&
+                this.getPacketsLeft(dn) >= packets && this.getSpaceLeft(sn) >= packets;
+    }
+
+    public boolean canSendPackets(DataNode dn, StorageNode sn, int packets) {
+        return this.canSendPackets(dn.getUuid(), sn.getUuid(), packets);
+    }
+
+    /**
+     * Sends packets from a Data Node to a Storage Node if it can, charging their min-cost energy.
+     *
+     * @param dn the uuid of the Data Node
+     * @param sn the uuid of the Storage Node
+     * @param packets the number of packets to send
+     * @return true if the packets were sent; false if the Data Node did not have that many packets left or the
+     * Storage Node that much space left, in which case nothing changes
+     */
+    public boolean trySendPackets(int dn, int sn, int packets) {
+        if (!this.isTransfer(dn, sn) || packets < 0) {
+            return false;
+        }
+        if (packets == 0) {
+            return true;
+        }
+
+        if (!reserve(this.packetsLeft, dn * STRIDE, packets)) {
+            return false;
+        }
+        if (!reserve(this.spaceLeft, sn * STRIDE, packets)) {
+            /* Give the packets back to the Data Node */
+            this.packetsLeft.getAndAdd(dn * STRIDE, packets);
+            return false;
+        }
+
+        this.energy.add((long) this.getCost(dn, sn) * packets);
+        this.transfers.increment();
+        return true;
+    }
+
+    /**
+     * Sends packets from a Data Node to a Storage Node, charging their min-cost energy.
+     *
+     * @param dn the Data Node
+     * @param sn the Storage Node
+     * @param packets the number of packets to send
+     * @throws IllegalArgumentException if the packets cannot be sent
+     */
+    public void sendPackets(DataNode dn, StorageNode sn, int packets) {
+        if (!this.trySendPackets(dn.getUuid(), sn.getUuid(), packets)) {
+            throw new IllegalArgumentException(
+                    String.format("Cannot send %d packets from %s (%d packets left) -> %s (%d space left)!",
+                            packets, dn.getName(), this.getPacketsLeft(dn), sn.getName(), this.getSpaceLeft(sn)
+                    )
+            );
+        }
+    }
+
+    /**
+     * Returns the energy it costs to send one packet from a Data Node to a Storage Node.
+     *
+     * @param dn the uuid of the Data Node
+     * @param sn the uuid of the Storage Node
+     * @return the min-cost of the path between the two nodes (in micro J)
+     */
+    public int getCost(int dn, int sn) {
+        if (!this.isTransfer(dn, sn)) {
+            throw new IllegalArgumentException(String.format("No cost between uuids %d -> %d!", dn, sn));
+        }
+        return this.costs[this.rowOfUuid[dn] * this.cols + this.colOfUuid[sn]];
+    }
+
+    /**
+     * Goes back to the start of the simulation, with every packet on its Data Node.
+     * Must not be called while other threads are sending packets.
+     */
+    public void reset() {
+        for (int uuid = 0; uuid < this.initialPacketsLeft.length; uuid++) {
+            this.packetsLeft.set(uuid * STRIDE, this.initialPacketsLeft[uuid]);
+            this.spaceLeft.set(uuid * STRIDE, this.initialSpaceLeft[uuid]);
+        }
+        this.energy.reset();
+        this.transfers.reset();
+    }
+
+    public int getPacketsLeft(int uuid) {
+        return this.packetsLeft.get(uuid * STRIDE);
+    }
+
+    public int getPacketsLeft(DataNode dn) {
+        return this.getPacketsLeft(dn.getUuid());
+    }
+
+    public int getSpaceLeft(int uuid) {
+        return this.spaceLeft.get(uuid * STRIDE);
+    }
+
+    public int getSpaceLeft(StorageNode sn) {
+        return this.getSpaceLeft(sn.getUuid());
+    }
+
+    /**
+     * Returns the energy of every transfer since the start of the simulation.
+     *
+     * @return the total energy (in micro J)
+     */
+    public long getEnergy() {
+        return this.energy.sum();
+    }
+
+    public long getTransferCount() {
+        return this.transfers.sum();
+    }
+}
@@ -0,0 +1,38 @@
+package com.grivera.generator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for one connectivity check of a placement while generating a network.
+ */
+@Name("com.grivera.ConnectivityAttempt")
+@Label("Connectivity Attempt")
+@Category("Sensor Network")
+@Description("Checks whether a random placement of nodes is connected")
+@StackTrace(false)
+final class ConnectivityAttemptEvent extends Event {
+
+    @Label("Attempt")
+    int attempt;
+
+    @Label("Generation Mode")
+    String mode;
+
+    @Label("Nodes")
+    int nodeCount;
+
+    @Label("Moved Nodes")
+    @Description("Nodes placed again since the last check, the only ones whose connections were searched")
+    int movedCount;
+
+    @Label("Components")
+    int componentCount;
+
+    @Label("Connected")
+    boolean connected;
+}
@@ -0,0 +1,216 @@
+package com.grivera.generator;
+
+import com.grivera.util.Metrics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Represents the min-costs from every Data Node to every Storage Node of a com.grivera.generator.Network.
+ *
+ * <p></p>
+ *
+ * The costs are stored in a flat row-major array with one row per Data Node and one column per Storage Node,
+ * in the same order as getDataNodes() and getStorageNodes().
+ *
+ * @see Network
+ */
+public final class CostMatrix {
+
+    /* Number of Data Nodes a single fork-join task searches from before it stops splitting */
+    private static final int ROWS_PER_TASK = 4;
+
+    private final int rows, cols;
+    private final int[] costs;
+    private final int[] rowOfUuid;
+    private final int[] colOfUuid;
+
+    private CostMatrix(int rows, int cols, int[] costs, int[] rowOfUuid, int[] colOfUuid) {
+        this.rows = rows;
+        this.cols = cols;
+        this.costs = costs;
+        this.rowOfUuid = rowOfUuid;
+        this.colOfUuid = colOfUuid;
+    }
+
+    /**
+     * Computes the cost matrix of the network using all available processors.
+     *
+     * @param network the network to compute the costs of
+     * @return the cost matrix of the network
+     */
+    public static CostMatrix of(Network network) {
+        return of(network, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Computes the cost matrix of the network, running the single-source search of each Data Node
+     * on a fork-join pool with the given parallelism.
+     *
+     * @param network the network to compute the costs of
+     * @param parallelism the number of threads to search with
+     * @return the cost matrix of the network
+     */
+    public static CostMatrix of(Network network, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(String.format("Invalid parallelism %d!", parallelism));
+        }
+
+        long start = Metrics.start();
+        List<DataNode> dNodes = network.getDataNodes();
+        List<StorageNode> sNodes = network.getStorageNodes();
+        int rows = dNodes.size();
+        int cols = sNodes.size();
+
+        int[] costs = new int[rows * cols];
+        RowTask task = new RowTask(network, dNodes, sNodes, costs, 0, rows);
+        if (parallelism == 1) {
+            task.invoke();
+        } else {
+            ForkJoinPool pool = new ForkJoinPool(parallelism);
+            try {
+                pool.invoke(task);
+            } finally {
+                pool.shutdown();
+            }
+        }
+        Metrics.stop(Metrics.Phase.COST_MATRIX, start);
+        return of(network, costs);
+    }
+
+    /**
+     * Wraps costs that were already computed for the network, i.e. read back from a cost matrix file.
+     *
+     * @param network the network the costs belong to
+     * @param costs the costs in row-major order, one row per Data Node and one column per Storage Node
+     * @return the cost matrix of the network
+     */
+    static CostMatrix of(Network network, int[] costs) {
+        List<DataNode> dNodes = network.getDataNodes();
+        List<StorageNode> sNodes = network.getStorageNodes();
+        int rows = dNodes.size();
+        int cols = sNodes.size();
+        if (costs.length != rows * cols) {
+            throw new IllegalArgumentException("Costs must have one entry per Data Node and Storage Node pair!");
+        }
+
+        int[] rowOfUuid = new int[network.getSensorNodes().size() + 1];
+        int[] colOfUuid = new int[network.getSensorNodes().size() + 1];
+        Arrays.fill(rowOfUuid, -1);
+        Arrays.fill(colOfUuid, -1);
+        for (int row = 0; row < rows; row++) {
+            rowOfUuid[dNodes.get(row).getUuid()] = row;
+        }
+        for (int col = 0; col < cols; col++) {
+            colOfUuid[sNodes.get(col).getUuid()] = col;
+        }
+        return new CostMatrix(rows, cols, costs, rowOfUuid, colOfUuid);
+    }
+
+    /**
+     * Fills the rows [from, to) of the cost matrix, splitting in half until the range is small enough.
+     */
+    private static class RowTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Network network;
+        private final List<DataNode> dNodes;
+        private final List<StorageNode> sNodes;
+        private final int[] costs;
+        private final int from, to;
+
+        RowTask(Network network, List<DataNode> dNodes, List<StorageNode> sNodes, int[] costs, int from, int to) {
+            this.network = network;
+            this.dNodes = dNodes;
+            this.sNodes = sNodes;
+            this.costs = costs;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > ROWS_PER_TASK) {
+                int mid = (this.from + this.to) >>> 1;
+                invokeAll(
+                        new RowTask(this.network, this.dNodes, this.sNodes, this.costs, this.from, mid),
+                        new RowTask(this.network, this.dNodes, this.sNodes, this.costs, mid, this.to)
+                );
+                return;
+            }
+
+            int cols = this.sNodes.size();
+            int[] minCosts;
+            for (int row = this.from; row < this.to; row++) {
+                minCosts = this.network.calculateMinCosts(this.dNodes.get(row));
+                for (int col = 0; col < cols; col++) {
+                    this.costs[row * cols + col] = minCosts[this.sNodes.get(col).getUuid()];
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests whether the matrix holds the cost between the two sensor nodes.
+     *
+     * @param from the starting sensor node
+     * @param to the ending sensor node
+     * @return true if and only if from is a Data Node and to is a Storage Node of the network; otherwise false
+     */
+    public boolean contains(SensorNode from, SensorNode to) {
+        return from.getUuid() < this.rowOfUuid.length && this.rowOfUuid[from.getUuid()] >= 0 &&
+                to.getUuid() < this.colOfUuid.length && this.colOfUuid[to.getUuid()] >= 0;
+    }
+
+    /**
+     * Returns the min-cost from the Data Node to the Storage Node.
+     *
+     * @param from the Data Node
+     * @param to the Storage Node
+     * @return the min-cost of sending a packet from the Data Node to the Storage Node
+     */
+    public int getCost(SensorNode from, SensorNode to) {
+        if (!this.contains(from, to)) {
+            throw new IllegalArgumentException(
+                    String.format("No cost between %s -> %s in the matrix!", from.getName(), to.getName())
+            );
+        }
+        return this.getCost(this.rowOfUuid[from.getUuid()], this.colOfUuid[to.getUuid()]);
+    }
+
+    /**
+     * Returns the min-cost from the row-th Data Node to the col-th Storage Node.
+     *
+     * @param row the index of the Data Node in getDataNodes()
+     * @param col the index of the Storage Node in getStorageNodes()
+     * @return the min-cost of sending a packet from the Data Node to the Storage Node
+     */
+    public int getCost(int row, int col) {
+        return this.costs[row * this.cols + col];
+    }
+
+    /* The row of a Data Node's uuid, or -1 if it is not a Data Node */
+    int getRowOf(int uuid) {
+        return (uuid < this.rowOfUuid.length) ? this.rowOfUuid[uuid] : -1;
+    }
+
+    /* The column of a Storage Node's uuid, or -1 if it is not a Storage Node */
+    int getColumnOf(int uuid) {
+        return (uuid < this.colOfUuid.length) ? this.colOfUuid[uuid] : -1;
+    }
+
+    /* The backing array itself, for writing the matrix to a file */
+    int[] getCosts() {
+        return this.costs;
+    }
+
+    public int getRowCount() {
+        return this.rows;
+    }
+
+    public int getColumnCount() {
+        return this.cols;
+    }
+}
@@ -0,0 +1,168 @@
+package com.grivera.generator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+
+/**
+ * Reads and writes the cost matrix of a network in a binary sidecar file next to the network's file,
+ * so loading the same network again does not repeat every Data Node's shortest-path search.
+ *
+ * <p></p>
+ *
+ * The file is big-endian:
+ * <p></p>
+ * magic ("CMX1") digest (32 bytes) rows cols (ints)
+ * <p>
+ * costs (rows * cols ints, row-major)
+ *
+ * <p></p>
+ *
+ * The digest is a SHA-256 hash of everything the costs depend on: the version of the cost model, the transmission
+ * range and the type and position of every node. q and m are left out, since they never change the costs. A file
+ * whose digest does not match the network is stale and is ignored, and rewritten once the costs are computed again.
+ */
+final class CostMatrixFile {
+
+    static final String EXTENSION = ".costs";
+
+    /* Bump whenever the energy cost of an edge or the min-cost search changes, so older files are ignored */
+    private static final int COST_MODEL_VERSION = 1;
+
+    private static final int MAGIC = 0x434D5831;    // "CMX1"
+    private static final int DIGEST_SIZE = 32;
+    private static final int HEADER_SIZE = Integer.BYTES + DIGEST_SIZE + 2 * Integer.BYTES;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private CostMatrixFile() {
+    }
+
+    /**
+     * Hashes everything the min-costs of a network depend on.
+     *
+     * @param tr the transmission range of the nodes
+     * @param nodes the nodes of the network, in uuid order
+     * @return the SHA-256 digest
+     */
+    static byte[] digest(double tr, List<SensorNode> nodes) {
+        MessageDigest sha;
+        try {
+            sha = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available!", e);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+        buffer.putInt(COST_MODEL_VERSION);
+        buffer.putDouble(tr);
+        buffer.putInt(nodes.size());
+        for (SensorNode node : nodes) {
+            if (buffer.remaining() < 1 + 2 * Double.BYTES) {
+                sha.update(buffer.flip());
+                buffer.clear();
+            }
+            buffer.put((byte) ((node instanceof DataNode) ? 'd' : 's'));
+            buffer.putDouble(node.getX());
+            buffer.putDouble(node.getY());
+        }
+        sha.update(buffer.flip());
+        return sha.digest();
+    }
+
+    /**
+     * Reads the costs from a sidecar file by memory-mapping it.
+     *
+     * @param file the sidecar file
+     * @param digest the digest of the network the costs are for
+     * @param rows the number of Data Nodes
+     * @param cols the number of Storage Nodes
+     * @return the costs in row-major order, or null if there is no file or it belongs to a different network
+     * @throws IOException if the file cannot be read
+     */
+    static int[] read(Path file, byte[] digest, int rows, int cols) throws IOException {
+        long expectedSize = HEADER_SIZE + (long) rows * cols * Integer.BYTES;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != expectedSize || expectedSize > Integer.MAX_VALUE) {
+                return null;
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) {
+                return null;
+            }
+            byte[] fileDigest = new byte[DIGEST_SIZE];
+            buffer.get(fileDigest);
+            if (!MessageDigest.isEqual(fileDigest, digest) || buffer.getInt() != rows || buffer.getInt() != cols) {
+                return null;
+            }
+
+            int[] costs = new int[rows * cols];
+            buffer.asIntBuffer().get(costs);
+            return costs;
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes the costs to a sidecar file. The file is written next to its final name first and then moved,
+     * so a run that reads it at the same time never sees half of a file. Nothing is written if the directory
+     * is not writable.
+     *
+     * @param file the sidecar file
+     * @param digest the digest of the network the costs are for
+     * @param matrix the costs
+     * @throws IOException if the file cannot be written
+     */
+    static void write(Path file, byte[] digest, CostMatrix matrix) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        if (!Files.isWritable(dir)) {
+            return;
+        }
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+                buffer.putInt(MAGIC);
+                buffer.put(digest);
+                buffer.putInt(matrix.getRowCount());
+                buffer.putInt(matrix.getColumnCount());
+
+                int[] costs = matrix.getCosts();
+                int written = 0;
+                IntBuffer ints;
+                while (written < costs.length) {
+                    ints = buffer.asIntBuffer();
+                    int count = Math.min(ints.remaining(), costs.length - written);
+                    ints.put(costs, written, count);
+                    buffer.position(buffer.position() + count * Integer.BYTES);
+                    written += count;
+                    drain(channel, buffer);
+                }
+                drain(channel, buffer);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
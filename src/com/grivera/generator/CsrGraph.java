@@ -0,0 +1,176 @@
+package com.grivera.generator;
+
+import java.util.Arrays;
+
+/**
+ * Represents the undirected adjacency graph of a com.grivera.generator.Network in compressed sparse row form.
+ *
+ * <p></p>
+ *
+ * Nodes are identified by their uuid (1..N, index 0 is unused). The neighbors of node u are
+ * getNeighbor(i) for getStart(u) &lt;= i &lt; getEnd(u), and getCost(i) is the precomputed cost of that edge.
+ * The graph also keeps the position of every node, so searches can bound the cost left to a target.
+ *
+ * @see SensorNetwork
+ */
+final class CsrGraph {
+
+    private final int nodeCount;
+    private final int[] offsets;
+    private final int[] neighbors;
+    private final int[] costs;
+    private final double[] xs, ys;
+    private final int minCost, maxCost;
+    private final double maxEdgeLength;
+
+    private CsrGraph(int nodeCount, int[] offsets, int[] neighbors, int[] costs, double[] xs, double[] ys) {
+        this.nodeCount = nodeCount;
+        this.offsets = offsets;
+        this.neighbors = neighbors;
+        this.costs = costs;
+        this.xs = xs;
+        this.ys = ys;
+
+        int minCost = (costs.length > 0) ? Integer.MAX_VALUE : 0;
+        int maxCost = 0;
+        for (int cost : costs) {
+            minCost = Math.min(minCost, cost);
+            maxCost = Math.max(maxCost, cost);
+        }
+        this.minCost = minCost;
+        this.maxCost = maxCost;
+
+        double maxEdgeLength = 0;
+        for (int u = 1; u <= nodeCount; u++) {
+            for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+                maxEdgeLength = Math.max(maxEdgeLength, this.distance(u, neighbors[i]));
+            }
+        }
+        this.maxEdgeLength = maxEdgeLength;
+    }
+
+    /**
+     * Collects undirected edges and packs them into a CsrGraph.
+     */
+    static class Builder {
+        private final int nodeCount;
+        private final double[] xs, ys;
+        private int edgeCount;
+        private int[] from = new int[16];
+        private int[] to = new int[16];
+        private int[] cost = new int[16];
+
+        Builder(int nodeCount) {
+            this.nodeCount = nodeCount;
+            this.xs = new double[nodeCount + 1];
+            this.ys = new double[nodeCount + 1];
+        }
+
+        void setPosition(int u, double x, double y) {
+            this.xs[u] = x;
+            this.ys[u] = y;
+        }
+
+        void addEdge(int u, int v, int edgeCost) {
+            if (this.edgeCount == this.from.length) {
+                int capacity = this.from.length * 2;
+                this.from = Arrays.copyOf(this.from, capacity);
+                this.to = Arrays.copyOf(this.to, capacity);
+                this.cost = Arrays.copyOf(this.cost, capacity);
+            }
+            this.from[this.edgeCount] = u;
+            this.to[this.edgeCount] = v;
+            this.cost[this.edgeCount] = edgeCost;
+            this.edgeCount++;
+        }
+
+        CsrGraph build() {
+            int[] offsets = new int[this.nodeCount + 2];
+            for (int e = 0; e < this.edgeCount; e++) {
+                offsets[this.from[e] + 1]++;
+                offsets[this.to[e] + 1]++;
+            }
+            for (int u = 0; u <= this.nodeCount; u++) {
+                offsets[u + 1] += offsets[u];
+            }
+
+            /* Each undirected edge is stored once in each direction */
+            int[] neighbors = new int[2 * this.edgeCount];
+            int[] costs = new int[2 * this.edgeCount];
+            int[] fill = Arrays.copyOf(offsets, this.nodeCount + 1);
+            for (int e = 0; e < this.edgeCount; e++) {
+                neighbors[fill[this.from[e]]] = this.to[e];
+                costs[fill[this.from[e]]++] = this.cost[e];
+                neighbors[fill[this.to[e]]] = this.from[e];
+                costs[fill[this.to[e]]++] = this.cost[e];
+            }
+            return new CsrGraph(this.nodeCount, offsets, neighbors, costs, this.xs, this.ys);
+        }
+    }
+
+    int getNodeCount() {
+        return this.nodeCount;
+    }
+
+    int getEdgeCount() {
+        return this.neighbors.length / 2;
+    }
+
+    int getStart(int uuid) {
+        return this.offsets[uuid];
+    }
+
+    int getEnd(int uuid) {
+        return this.offsets[uuid + 1];
+    }
+
+    int getNeighbor(int index) {
+        return this.neighbors[index];
+    }
+
+    int getCost(int index) {
+        return this.costs[index];
+    }
+
+    int getDegree(int uuid) {
+        return this.offsets[uuid + 1] - this.offsets[uuid];
+    }
+
+    int getMinCost() {
+        return this.minCost;
+    }
+
+    int getMaxCost() {
+        return this.maxCost;
+    }
+
+    /**
+     * Returns the straight-line distance between two nodes.
+     *
+     * @param u the uuid of the first node
+     * @param v the uuid of the second node
+     * @return the distance between the two nodes (in meters)
+     */
+    double distance(int u, int v) {
+        double dx = this.xs[u] - this.xs[v];
+        double dy = this.ys[u] - this.ys[v];
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * Returns a lower bound on the cost of any path between two nodes: every hop costs at least the
+     * cheapest edge and covers at most the longest edge, so the path needs at least
+     * ceil(distance / longest edge) hops. The bound never drops by more than one hop across an edge.
+     *
+     * @param u the uuid of the first node
+     * @param v the uuid of the second node
+     * @return a lower bound on the min-cost between the two nodes
+     */
+    int lowerBound(int u, int v) {
+        if (u == v || this.maxEdgeLength == 0) {
+            return 0;
+        }
+        double hops = Math.ceil(this.distance(u, v) / this.maxEdgeLength - 1e-9);
+        return (int) Math.min(Integer.MAX_VALUE / 2, hops * this.minCost);
+    }
+}
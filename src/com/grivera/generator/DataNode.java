@@ -7,12 +7,21 @@ package com.grivera.generator;
  */
 public class DataNode extends SensorNode {
 
-    private static int idCounter = 1;
     private int overflowPackets;
     private int packetsLeft;
 
-    public DataNode(double x, double y, double tr, int overflowPackets) {
-        super(x, y, tr, String.format("DN%02d", idCounter++));
+    /**
+     * Creates a Data Node.
+     *
+     * @param uuid the id of the node in its network (1..N)
+     * @param id the number in the node's name, i.e. DN01 (1..p)
+     * @param x the x-coordinate of the node (in meters)
+     * @param y the y-coordinate of the node (in meters)
+     * @param tr the transmission range of the node (in meters)
+     * @param overflowPackets the number of overflow data packets the node has
+     */
+    public DataNode(int uuid, int id, double x, double y, double tr, int overflowPackets) {
+        super(uuid, x, y, tr, String.format("DN%02d", id));
         this.setOverflowPackets(overflowPackets);
     }
 
@@ -52,8 +61,4 @@ public class DataNode extends SensorNode {
     public int getPacketsLeft() {
         return this.packetsLeft;
     }
-
-    public static void resetCounter() {
-        idCounter = 1;
-    }
 }
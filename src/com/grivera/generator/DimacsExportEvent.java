@@ -0,0 +1,30 @@
+package com.grivera.generator;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for writing the flow network of a network in the DIMACS format.
+ */
+@Name("com.grivera.DimacsExport")
+@Label("DIMACS Export")
+@Category("Sensor Network")
+@Description("Writes the min-cost flow network for CS2, not counting the cost matrix")
+@StackTrace(false)
+final class DimacsExportEvent extends Event {
+
+    @Label("Nodes")
+    int nodeCount;
+
+    @Label("Arcs")
+    long arcCount;
+
+    @Label("Bytes Written")
+    @DataAmount
+    long bytesWritten;
+}
@@ -0,0 +1,22 @@
+package com.grivera.generator;
+
+/**
+ * Represents how SensorNetwork.of makes a randomly generated network connected.
+ *
+ * @see SensorNetwork#of(double, double, int, double, int, int, int, GenerationMode)
+ */
+public enum GenerationMode {
+
+    /**
+     * Places every node again until the whole network happens to be connected.
+     * Every connected placement is equally likely.
+     */
+    RESAMPLE,
+
+    /**
+     * Keeps the largest connected component and only places the nodes outside of it again,
+     * until every node is connected. Much faster on sparse networks, but favours placements
+     * close to the largest component.
+     */
+    REPAIR
+}
@@ -0,0 +1,25 @@
+package com.grivera.generator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for building the adjacency graph of a network.
+ */
+@Name("com.grivera.GraphBuild")
+@Label("Graph Build")
+@Category("Sensor Network")
+@Description("Builds the adjacency graph of a network from its node positions")
+@StackTrace(false)
+final class GraphBuildEvent extends Event {
+
+    @Label("Nodes")
+    int nodeCount;
+
+    @Label("Edges")
+    int edgeCount;
+}
@@ -0,0 +1,290 @@
+package com.grivera.generator;
+
+import com.grivera.util.IndexedMinHeap;
+import com.grivera.util.Metrics;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents the min-cost flow of a com.grivera.generator.Network: how many packets each Data Node sends to each
+ * Storage Node so that every overflow packet is stored at the lowest total energy cost.
+ *
+ * <p></p>
+ *
+ * The flow network is the same one saveAsCsInp writes for CS2: a source with an arc of capacity q to every
+ * Data Node, an arc of capacity q and the min-cost path cost from every Data Node to every Storage Node, and an
+ * arc of capacity m from every Storage Node to a sink. It is solved in process with successive shortest paths
+ * using node potentials, so no .inp file or external solver is needed.
+ *
+ * <p></p>
+ *
+ * Cost scaling (the method CS2 itself uses) is deferred: successive shortest paths runs one Dijkstra search per
+ * augmenting path, and each path carries the full bottleneck instead of one packet, which is fast enough for
+ * the network sizes the sweeps generate.
+ *
+ * @see Network
+ * @see CostMatrix
+ */
+public final class MinCostFlow {
+
+    private final int rows, cols;
+    private final int[] flows;
+    private final long totalCost;
+
+    private MinCostFlow(int rows, int cols, int[] flows, long totalCost) {
+        this.rows = rows;
+        this.cols = cols;
+        this.flows = flows;
+        this.totalCost = totalCost;
+    }
+
+    /**
+     * Solves the min-cost flow of the network with the network's current packets and capacities.
+     *
+     * @param network the network to solve
+     * @return the min-cost flow of the network
+     */
+    public static MinCostFlow of(Network network) {
+        List<DataNode> dNodes = network.getDataNodes();
+        List<StorageNode> sNodes = network.getStorageNodes();
+
+        int[] supplies = new int[dNodes.size()];
+        for (int row = 0; row < supplies.length; row++) {
+            supplies[row] = dNodes.get(row).getOverflowPackets();
+        }
+        int[] capacities = new int[sNodes.size()];
+        for (int col = 0; col < capacities.length; col++) {
+            capacities[col] = sNodes.get(col).getCapacity();
+        }
+        return of(network.getCostMatrix(), supplies, capacities);
+    }
+
+    /**
+     * Solves the min-cost flow from the rows to the columns of a cost matrix.
+     *
+     * @param costs the cost of sending one packet from each Data Node to each Storage Node
+     * @param supplies the packets each Data Node has to send (also the capacity of each of its arcs)
+     * @param capacities the packets each Storage Node can store
+     * @return the min-cost flow
+     * @throws IllegalStateException if the packets cannot all be stored, or a path cost does not fit in an int
+     */
+    public static MinCostFlow of(CostMatrix costs, int[] supplies, int[] capacities) {
+        if (supplies.length != costs.getRowCount() || capacities.length != costs.getColumnCount()) {
+            throw new IllegalArgumentException("Supplies and capacities must match the cost matrix!");
+        }
+        long start = Metrics.start();
+        MinCostFlow flow = new Solver(costs, supplies, capacities).solve();
+        Metrics.stop(Metrics.Phase.MIN_COST_FLOW, start);
+        return flow;
+    }
+
+    /**
+     * Successive shortest paths over the residual network, with Dijkstra on reduced costs.
+     * Node 0 is the source, 1..p the Data Nodes, p+1..p+s the Storage Nodes and p+s+1 the sink.
+     */
+    private static class Solver {
+        private final CostMatrix costs;
+        private final int[] supplies, capacities;
+        private final int p, s, sink;
+
+        private final int[] flows;
+        private final int[] sent, stored;
+
+        private final long[] potential;
+        private final long[] dist;
+        private final int[] prev;
+        private final boolean[] settled;
+        private final IndexedMinHeap heap;
+
+        Solver(CostMatrix costs, int[] supplies, int[] capacities) {
+            this.costs = costs;
+            this.supplies = supplies;
+            this.capacities = capacities;
+            this.p = costs.getRowCount();
+            this.s = costs.getColumnCount();
+            this.sink = this.p + this.s + 1;
+
+            this.flows = new int[this.p * this.s];
+            this.sent = new int[this.p];
+            this.stored = new int[this.s];
+
+            this.potential = new long[this.sink + 1];
+            this.dist = new long[this.sink + 1];
+            this.prev = new int[this.sink + 1];
+            this.settled = new boolean[this.sink + 1];
+            this.heap = new IndexedMinHeap(this.sink + 1);
+        }
+
+        MinCostFlow solve() {
+            long demand = 0;
+            for (int supply : this.supplies) {
+                demand += supply;
+            }
+
+            long routed = 0;
+            while (routed < demand) {
+                if (!this.findShortestPath()) {
+                    throw new IllegalStateException(
+                            String.format("Network is not feasible: only %d of %d packets can be stored!",
+                                    routed, demand
+                            )
+                    );
+                }
+                routed += this.augment();
+            }
+
+            long totalCost = 0;
+            for (int row = 0; row < this.p; row++) {
+                for (int col = 0; col < this.s; col++) {
+                    totalCost += (long) this.flows[row * this.s + col] * this.costs.getCost(row, col);
+                }
+            }
+            return new MinCostFlow(this.p, this.s, this.flows, totalCost);
+        }
+
+        private int dn(int row) {
+            return 1 + row;
+        }
+
+        private int sn(int col) {
+            return 1 + this.p + col;
+        }
+
+        /* Reduced costs are non-negative, so Dijkstra finds the shortest augmenting path */
+        private boolean findShortestPath() {
+            Arrays.fill(this.dist, Long.MAX_VALUE);
+            Arrays.fill(this.settled, false);
+            this.heap.clear();
+            this.dist[0] = 0;
+            this.prev[0] = -1;
+
+            this.heap.insertOrDecrease(0, 0);
+            int curr;
+            while (!this.heap.isEmpty()) {
+                curr = this.heap.poll();
+                this.settled[curr] = true;
+                if (curr == this.sink) {
+                    break;
+                }
+
+                if (curr == 0) {
+                    for (int row = 0; row < this.p; row++) {
+                        if (this.sent[row] < this.supplies[row]) {
+                            this.relax(curr, this.dn(row), 0);
+                        }
+                    }
+                } else if (curr <= this.p) {
+                    int row = curr - 1;
+                    for (int col = 0; col < this.s; col++) {
+                        if (this.flows[row * this.s + col] < this.supplies[row]) {
+                            this.relax(curr, this.sn(col), this.costs.getCost(row, col));
+                        }
+                    }
+                } else {
+                    int col = curr - 1 - this.p;
+                    for (int row = 0; row < this.p; row++) {
+                        if (this.flows[row * this.s + col] > 0) {
+                            this.relax(curr, this.dn(row), -this.costs.getCost(row, col));
+                        }
+                    }
+                    if (this.stored[col] < this.capacities[col]) {
+                        this.relax(curr, this.sink, 0);
+                    }
+                }
+            }
+
+            if (!this.settled[this.sink]) {
+                return false;
+            }
+
+            /* Nodes that were not settled are at least as far as the sink */
+            long sinkDist = this.dist[this.sink];
+            for (int v = 0; v <= this.sink; v++) {
+                this.potential[v] += this.settled[v] ? this.dist[v] : sinkDist;
+            }
+            return true;
+        }
+
+        private void relax(int from, int to, long cost) {
+            if (this.settled[to]) {
+                return;
+            }
+            long value = this.dist[from] + cost + this.potential[from] - this.potential[to];
+            if (value < this.dist[to]) {
+                this.dist[to] = value;
+                this.prev[to] = from;
+                /* The heap has int keys, and a clamped key would settle nodes in the wrong order */
+                if (value > Integer.MAX_VALUE) {
+                    throw new IllegalStateException(
+                            String.format("Path cost %d is too large for the min-cost flow solver!", value)
+                    );
+                }
+                this.heap.insertOrDecrease(to, (int) value);
+            }
+        }
+
+        private int augment() {
+            int bottleneck = Integer.MAX_VALUE;
+            for (int v = this.sink; this.prev[v] >= 0; v = this.prev[v]) {
+                bottleneck = Math.min(bottleneck, this.residual(this.prev[v], v));
+            }
+
+            for (int v = this.sink; this.prev[v] >= 0; v = this.prev[v]) {
+                this.push(this.prev[v], v, bottleneck);
+            }
+            return bottleneck;
+        }
+
+        private int residual(int from, int to) {
+            if (from == 0) {
+                return this.supplies[to - 1] - this.sent[to - 1];
+            } else if (to == this.sink) {
+                return this.capacities[from - 1 - this.p] - this.stored[from - 1 - this.p];
+            } else if (from <= this.p) {
+                return this.supplies[from - 1] - this.flows[(from - 1) * this.s + (to - 1 - this.p)];
+            }
+            return this.flows[(to - 1) * this.s + (from - 1 - this.p)];
+        }
+
+        private void push(int from, int to, int amount) {
+            if (from == 0) {
+                this.sent[to - 1] += amount;
+            } else if (to == this.sink) {
+                this.stored[from - 1 - this.p] += amount;
+            } else if (from <= this.p) {
+                this.flows[(from - 1) * this.s + (to - 1 - this.p)] += amount;
+            } else {
+                this.flows[(to - 1) * this.s + (from - 1 - this.p)] -= amount;
+            }
+        }
+    }
+
+    /**
+     * Returns the packets sent from the row-th Data Node to the col-th Storage Node.
+     *
+     * @param row the index of the Data Node in getDataNodes()
+     * @param col the index of the Storage Node in getStorageNodes()
+     * @return the number of packets sent
+     */
+    public int getFlow(int row, int col) {
+        return this.flows[row * this.cols + col];
+    }
+
+    public int getRowCount() {
+        return this.rows;
+    }
+
+    public int getColumnCount() {
+        return this.cols;
+    }
+
+    /**
+     * Returns the total energy cost of the flow, the same value CS2 reports for the network's .inp file.
+     *
+     * @return the sum of packets times min-cost over every (Data Node, Storage Node) pair
+     */
+    public long getTotalCost() {
+        return this.totalCost;
+    }
+}
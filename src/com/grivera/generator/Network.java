@@ -17,9 +17,13 @@ public interface Network {
     boolean isFeasible();
     Map<SensorNode, Set<SensorNode>> getAdjacencyList();    // Returns the connection of nodes (using ID)
     int calculateMinCost(SensorNode from, SensorNode to);
+    int[] calculateMinCosts(SensorNode from);    // Returns the min-cost to every node (indexed by uuid)
+    CostMatrix getCostMatrix();    // Returns the min-costs from every Data Node to every Storage Node
+    MinCostFlow calculateMinCostFlow();
     List<SensorNode> getMinCostPath(SensorNode from, SensorNode to);
     int calculateCostOfPath(List<SensorNode> path);
     void save(String fileName);
+    void saveAsSnb(String fileName);
     void saveAsCsInp(String fileName);
     void setOverflowPackets(int overflowPackets);
     void setStorageCapacity(int storageCapacity);
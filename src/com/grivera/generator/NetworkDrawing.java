@@ -0,0 +1,324 @@
+package com.grivera.generator;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lays out a network on a canvas and draws its axes, connections, nodes and highlighted paths with a Painter.
+ * It only reads the network, so one network can be drawn by several threads at once.
+ *
+ * <p></p>
+ *
+ * Each connection is drawn once, and all of them are stroked as a single path. Labels that would overlap a label
+ * already drawn are left out. Networks with more nodes than the detail threshold are drawn as a heatmap of how
+ * many nodes fall in each few pixels instead, since their connections and labels would only cover the canvas.
+ *
+ * @see Painter
+ * @see SensorNetworkGraph
+ * @see NetworkRenderer
+ */
+final class NetworkDrawing {
+
+    static final int BLACK = 0x000000;
+    static final int GRAY = 0x808080;
+    static final int SKY_BLUE = 0x87CEEB;
+    static final int RED = 0xFF0000;
+    static final int GREEN = 0x008000;
+    static final int DARK_ORANGE = 0xFF8C00;
+    static final int NAVY = 0x000080;
+
+    static final int DEFAULT_DETAIL_THRESHOLD = 5_000;
+
+    /* Side of a heatmap cell, and of a cell of the mask that keeps labels apart (in pixels) */
+    private static final int DENSITY_CELL_SIZE = 4;
+    private static final int LABEL_CELL_SIZE = 4;
+
+    /* Rough size of a label in the 12px default font */
+    private static final double LABEL_CHAR_WIDTH = 7;
+    private static final double LABEL_HEIGHT = 14;
+
+    private final Network network;
+    private final double width;
+    private final double height;
+    private final double xScale;
+    private final double yScale;
+    private volatile int detailThreshold = DEFAULT_DETAIL_THRESHOLD;
+
+    /**
+     * Lays out a network on a canvas.
+     *
+     * @param network the network to draw
+     * @param width the width of the canvas
+     * @param height the height of the canvas
+     */
+    NetworkDrawing(Network network, double width, double height) {
+        this.network = network;
+        this.width = width;
+        this.height = height;
+        this.xScale = network.getWidth() / 10;
+        this.yScale = network.getLength() / 10;
+    }
+
+    void drawAxis(Painter painter) {
+        painter.beginPath();
+        painter.setStroke(BLACK);
+        painter.setLineWidth(5);
+
+        /* Y-axis */
+        painter.moveTo(40, 40);
+        painter.lineTo(40, this.height - 40);
+
+        /* X-axis */
+        painter.moveTo(40, this.height - 40);
+        painter.lineTo(this.width - 40, this.height - 40);
+
+        /* Draw x- and y-axis */
+        painter.stroke();
+
+        painter.beginPath();
+        painter.setLineWidth(1);
+        painter.setStroke(GRAY);
+
+        double increment = 0.0;
+        for (int i = 40; i < this.width - 40; i += 50) {
+            painter.fillText(String.format("%.2f", increment), i, this.height - 20);
+            increment += this.xScale;
+
+            if (i == 40) {
+                continue;
+            }
+            painter.moveTo(i, 40);
+            painter.lineTo(i, this.height - 40);
+        }
+
+        increment = 0.0;
+        for (int i = 40; i < this.width - 40; i += 50) {
+
+            painter.fillText(String.format("%.2f", increment), 20, this.height - i);
+            increment += this.yScale;
+
+            if (i == 40) {
+                continue;
+            }
+            painter.moveTo(40, this.height - i);
+            painter.lineTo(this.width - 40, this.height - i);
+        }
+
+        /* Draw */
+        painter.stroke();
+    }
+
+    /**
+     * Draws the connections and nodes of the network, or their heatmap if the network is above the detail threshold.
+     *
+     * @param painter the painter to draw with
+     */
+    void drawNetwork(Painter painter) {
+        if (this.network.getSensorNodes().size() > this.detailThreshold) {
+            this.drawDensity(painter);
+            return;
+        }
+
+        painter.beginPath();
+        painter.setStroke(SKY_BLUE);
+        this.drawConnections(painter);
+        painter.stroke();
+
+        boolean[] labels = new boolean[this.labelColumns() * this.labelRows()];
+        for (SensorNode node : this.network.getSensorNodes()) {
+            painter.setStroke((node instanceof DataNode) ? RED : GREEN);
+            this.drawNode(painter, node, 8, labels);
+        }
+    }
+
+    /* Adds every connection to the current path once, from the node with the lower uuid */
+    private void drawConnections(Painter painter) {
+        List<SensorNode> nodes = this.network.getSensorNodes();
+        if (this.network instanceof SensorNetwork sensorNetwork) {
+            CsrGraph graph = sensorNetwork.getGraph();
+            double[] xs = new double[nodes.size() + 1];
+            double[] ys = new double[nodes.size() + 1];
+            for (SensorNode node : nodes) {
+                xs[node.getUuid()] = this.scaleX(node.getX());
+                ys[node.getUuid()] = this.scaleY(node.getY());
+            }
+
+            int v;
+            for (int u = 1; u <= graph.getNodeCount(); u++) {
+                for (int i = graph.getStart(u); i < graph.getEnd(u); i++) {
+                    v = graph.getNeighbor(i);
+                    if (u < v) {
+                        painter.moveTo(xs[u], ys[u]);
+                        painter.lineTo(xs[v], ys[v]);
+                    }
+                }
+            }
+            return;
+        }
+
+        SensorNode n1;
+        for (Map.Entry<SensorNode, Set<SensorNode>> entry : this.network.getAdjacencyList().entrySet()) {
+            n1 = entry.getKey();
+            for (SensorNode n2 : entry.getValue()) {
+                if (n1.getUuid() < n2.getUuid()) {
+                    this.drawLine(painter, n1, n2);
+                }
+            }
+        }
+    }
+
+    /* Fills every few pixels by how many nodes are in them, from sky blue (few) to navy (the most) */
+    private void drawDensity(Painter painter) {
+        int cols = (int) Math.ceil(this.width / DENSITY_CELL_SIZE);
+        int rows = (int) Math.ceil(this.height / DENSITY_CELL_SIZE);
+        int[] counts = new int[cols * rows];
+        int max = 0;
+        int cell;
+        for (SensorNode node : this.network.getSensorNodes()) {
+            cell = this.cellOf(this.scaleX(node.getX()), this.scaleY(node.getY()), DENSITY_CELL_SIZE, cols, rows);
+            max = Math.max(max, ++counts[cell]);
+        }
+
+        /* Log scale, so sparse areas stay visible next to dense ones */
+        double scale = Math.log1p(max);
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                painter.fillRect((i % cols) * DENSITY_CELL_SIZE, (i / cols) * DENSITY_CELL_SIZE,
+                        DENSITY_CELL_SIZE, DENSITY_CELL_SIZE,
+                        0xFF000000 | blend(SKY_BLUE, NAVY, Math.log1p(counts[i]) / scale)
+                );
+            }
+        }
+
+        /* Data Nodes stay visible as dots while there are few enough of them */
+        List<DataNode> dataNodes = this.network.getDataNodes();
+        if (dataNodes.size() <= this.detailThreshold) {
+            for (DataNode node : dataNodes) {
+                painter.fillRect(this.scaleX(node.getX()) - 1.5, this.scaleY(node.getY()) - 1.5, 3, 3,
+                        0xFF000000 | RED);
+            }
+        }
+    }
+
+    private int cellOf(double x, double y, int cellSize, int cols, int rows) {
+        int col = Math.max(0, Math.min(cols - 1, (int) (x / cellSize)));
+        int row = Math.max(0, Math.min(rows - 1, (int) (y / cellSize)));
+        return row * cols + col;
+    }
+
+    private static int blend(int from, int to, double t) {
+        int r = (int) Math.round(((from >> 16) & 0xFF) + t * (((to >> 16) & 0xFF) - ((from >> 16) & 0xFF)));
+        int g = (int) Math.round(((from >> 8) & 0xFF) + t * (((to >> 8) & 0xFF) - ((from >> 8) & 0xFF)));
+        int b = (int) Math.round((from & 0xFF) + t * ((to & 0xFF) - (from & 0xFF)));
+        return (r << 16) | (g << 8) | b;
+    }
+
+    /**
+     * Draws an orange path that represents a min-cost path.
+     *
+     * @param painter the painter to draw with
+     * @param path the nodes of the path, in order
+     */
+    void drawPath(Painter painter, List<SensorNode> path) {
+        painter.beginPath();
+        painter.setStroke(DARK_ORANGE);
+        painter.setLineWidth(2);
+
+        /* Highlight nodes */
+        for (SensorNode node : path) {
+            this.drawNode(painter, node, 10, null);
+        }
+
+        /* Highlight the connections */
+        for (int i = 0; i < path.size() - 1; i++) {
+            this.drawLine(painter, path.get(i), path.get(i + 1));
+        }
+        painter.stroke();
+    }
+
+    /* Draws the node, and its label if labels is given and the label does not overlap one in it */
+    private void drawNode(Painter painter, SensorNode node, double radius, boolean[] labels) {
+        double x, y;
+        x = this.scaleX(node.getX());
+        y = this.scaleY(node.getY());
+        painter.strokeOval(x - 4, y - 4, radius, radius);
+
+        if (labels != null && this.placeLabel(labels, node.getName(), x, y - (radius * 1.25))) {
+            painter.fillText(node.getName(), x, y - (radius * 1.25));
+        }
+    }
+
+    /* Marks the cells a label centered on (x, y) covers, unless one of them is already taken */
+    private boolean placeLabel(boolean[] labels, String text, double x, double y) {
+        int cols = this.labelColumns();
+        int rows = this.labelRows();
+        double halfWidth = text.length() * LABEL_CHAR_WIDTH / 2;
+        int minCol = Math.max(0, (int) ((x - halfWidth) / LABEL_CELL_SIZE));
+        int maxCol = Math.min(cols - 1, (int) ((x + halfWidth) / LABEL_CELL_SIZE));
+        int minRow = Math.max(0, (int) ((y - LABEL_HEIGHT / 2) / LABEL_CELL_SIZE));
+        int maxRow = Math.min(rows - 1, (int) ((y + LABEL_HEIGHT / 2) / LABEL_CELL_SIZE));
+
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                if (labels[row * cols + col]) {
+                    return false;
+                }
+            }
+        }
+        for (int row = minRow; row <= maxRow; row++) {
+            for (int col = minCol; col <= maxCol; col++) {
+                labels[row * cols + col] = true;
+            }
+        }
+        return true;
+    }
+
+    private int labelColumns() {
+        return Math.max(1, (int) Math.ceil(this.width / LABEL_CELL_SIZE));
+    }
+
+    private int labelRows() {
+        return Math.max(1, (int) Math.ceil(this.height / LABEL_CELL_SIZE));
+    }
+
+    private void drawLine(Painter painter, SensorNode from, SensorNode to) {
+        painter.moveTo(this.scaleX(from.getX()), this.scaleY(from.getY()));
+        painter.lineTo(this.scaleX(to.getX()), this.scaleY(to.getY()));
+    }
+
+    /**
+     * Sets the most nodes a network can have to be drawn with its connections, nodes and labels;
+     * larger networks are drawn as a heatmap.
+     *
+     * @param detailThreshold the most nodes to draw in detail
+     */
+    void setDetailThreshold(int detailThreshold) {
+        if (detailThreshold < 0) {
+            throw new IllegalArgumentException(String.format("Invalid detail threshold %d!", detailThreshold));
+        }
+        this.detailThreshold = detailThreshold;
+    }
+
+    double getWidth() {
+        return this.width;
+    }
+
+    double getHeight() {
+        return this.height;
+    }
+
+    double scaleX(double x) {
+        return this.pointToScale(x, this.xScale);
+    }
+
+    double scaleY(double y) {
+        return this.height - this.pointToScale(y, this.yScale);
+    }
+
+    private double pointToScale(double val, double scale) {
+//        Pixels -> Real
+//        return ((val - 40) / 50) * increment;
+        return (50 * val) / scale + 40;
+    }
+}
@@ -0,0 +1,206 @@
+package com.grivera.generator;
+
+import com.grivera.io.NetworkData;
+import com.grivera.util.DisjointSet;
+import com.grivera.util.Metrics;
+import com.grivera.util.MutableSpatialGrid;
+import com.grivera.util.SpatialGrid;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Places the nodes of a random Sensor com.grivera.generator.Network and makes them connected,
+ * working only on node types and positions so no SensorNodes or graphs are built until the placement is final.
+ *
+ * <p></p>
+ *
+ * The connected components and a grid of the node positions are kept between attempts. A check only searches
+ * the range of the nodes placed since the last one, so repairing a placement costs time in the number of moved
+ * nodes (and their neighbors), not in the size of the network.
+ *
+ * @see GenerationMode
+ */
+final class NetworkGenerator {
+
+    private final double width, length, tr;
+    private final int p;
+    private final RandomGenerator rand;
+
+    private final byte[] types;
+    private final double[] xs, ys;
+    private final DisjointSet components;
+    private MutableSpatialGrid grid;
+
+    /* The nodes placed since the last connectivity check */
+    private final int[] moved;
+    private int movedCount;
+
+    NetworkGenerator(double width, double length, int N, double tr, int p, RandomGenerator rand) {
+        this.width = width;
+        this.length = length;
+        this.tr = tr;
+        this.p = p;
+        this.rand = rand;
+
+        this.types = new byte[N];
+        this.xs = new double[N];
+        this.ys = new double[N];
+        this.components = new DisjointSet(N);
+        this.moved = new int[N];
+    }
+
+    /**
+     * Places every node at random, choosing p random nodes to be Data Nodes and the rest Storage Nodes.
+     */
+    void place() {
+        long start = Metrics.start();
+        int N = this.types.length;
+        int p = this.p;
+        int choice;
+        for (int index = 0; index < N; index++) {
+            choice = this.rand.nextInt(1, 11);
+            this.xs[index] = this.width * this.rand.nextDouble();
+            this.ys[index] = this.length * this.rand.nextDouble();
+
+            if ((choice < 5 && p > 0) || N - index <= p) {
+                this.types[index] = NetworkData.DATA_NODE;
+                p--;
+            } else {
+                this.types[index] = NetworkData.STORAGE_NODE;
+            }
+            this.moved[index] = index;
+        }
+        this.movedCount = N;
+        Metrics.stop(Metrics.Phase.PLACEMENT, start);
+    }
+
+    /**
+     * Places nodes until the network is connected.
+     *
+     * @param mode how to place the nodes again when the network is not connected
+     * @param maxAttempts the most placements to try
+     * @return the number of placements tried
+     * @throws IllegalStateException if the network is still not connected after maxAttempts placements
+     */
+    int placeConnected(GenerationMode mode, int maxAttempts) {
+        this.place();
+        int attempts = 1;
+        while (!this.isConnected(attempts, mode)) {
+            if (attempts >= maxAttempts) {
+                Metrics.add(Metrics.Counter.CONNECTIVITY_ATTEMPTS, attempts);
+                throw new IllegalStateException(
+                        String.format("Failed to create a connected network after %d tries!", maxAttempts)
+                );
+            }
+
+            switch (mode) {
+                case RESAMPLE -> this.place();
+                case REPAIR -> this.repair();
+            }
+            attempts++;
+        }
+        Metrics.add(Metrics.Counter.CONNECTIVITY_ATTEMPTS, attempts);
+        return attempts;
+    }
+
+    /* Moves every node outside the largest component to a new random position, keeping its type */
+    private void repair() {
+        long start = Metrics.start();
+        int largest = 0;
+        for (int index = 1; index < this.types.length; index++) {
+            if (this.components.sizeOf(index) > this.components.sizeOf(largest)) {
+                largest = index;
+            }
+        }
+
+        int root = this.components.find(largest);
+        this.movedCount = 0;
+        for (int index = 0; index < this.types.length; index++) {
+            if (this.components.find(index) != root) {
+                this.xs[index] = this.width * this.rand.nextDouble();
+                this.ys[index] = this.length * this.rand.nextDouble();
+                this.moved[this.movedCount++] = index;
+            }
+        }
+        Metrics.stop(Metrics.Phase.PLACEMENT, start);
+    }
+
+    /*
+     * Tracks the connected components with the same range test as SensorNode.inRangeOf. The moved nodes are
+     * always whole components (every node, or every node outside the largest component), so they can be split
+     * back into their own sets while the components of the nodes that stayed are kept.
+     */
+    private boolean isConnected(int attempt, GenerationMode mode) {
+        if (this.types.length == 0) {
+            return true;
+        }
+
+        ConnectivityAttemptEvent event = new ConnectivityAttemptEvent();
+        event.begin();
+        long start = Metrics.start();
+        if (this.movedCount == this.types.length) {
+            this.unionAll(mode);
+        } else {
+            this.unionMoved();
+        }
+        int movedCount = this.movedCount;
+        this.movedCount = 0;
+        Metrics.stop(Metrics.Phase.CONNECTIVITY, start);
+
+        boolean connected = this.components.getCount() == 1;
+        event.end();
+        if (event.shouldCommit()) {
+            event.attempt = attempt;
+            event.mode = mode.name();
+            event.nodeCount = this.types.length;
+            event.movedCount = movedCount;
+            event.componentCount = this.components.getCount();
+            event.connected = connected;
+            event.commit();
+        }
+        return connected;
+    }
+
+    /* Every node moved: a grid built once over all the positions visits each candidate pair only once */
+    private void unionAll(GenerationMode mode) {
+        this.components.reset();
+        SpatialGrid grid = new SpatialGrid(this.xs, this.ys, this.tr + 0.0001);
+        grid.forEachCandidatePair((i, j) -> {
+            if (SensorNode.inRange(this.xs[i], this.ys[i], this.xs[j], this.ys[j], this.tr)) {
+                this.components.union(i, j);
+            }
+        });
+
+        /* Only repairs move a few nodes at a time, so only they keep the positions in a grid between checks */
+        if (mode == GenerationMode.REPAIR) {
+            if (this.grid == null) {
+                this.grid = new MutableSpatialGrid(this.width, this.length, this.tr + 0.0001, this.types.length);
+            }
+            for (int index = 0; index < this.types.length; index++) {
+                this.grid.move(index, this.xs[index], this.ys[index]);
+            }
+        }
+    }
+
+    /* Only the nodes outside the largest component moved: search their ranges, keep every other connection */
+    private void unionMoved() {
+        this.components.split(this.moved, this.movedCount);
+
+        /* Every moved node is in the grid at its new position before any of their ranges are searched */
+        for (int k = 0; k < this.movedCount; k++) {
+            this.grid.move(this.moved[k], this.xs[this.moved[k]], this.ys[this.moved[k]]);
+        }
+        for (int k = 0; k < this.movedCount; k++) {
+            int i = this.moved[k];
+            this.grid.forEachCandidate(this.xs[i], this.ys[i], j -> {
+                if (j != i && SensorNode.inRange(this.xs[i], this.ys[i], this.xs[j], this.ys[j], this.tr)) {
+                    this.components.union(i, j);
+                }
+            });
+        }
+    }
+
+    NetworkData toNetworkData(int q, int m) {
+        return new NetworkData(this.width, this.length, this.tr, q, m, this.types, this.xs, this.ys);
+    }
+}
@@ -0,0 +1,27 @@
+package com.grivera.generator;
+
+/**
+ * Represents the parameters of a randomly generated Sensor com.grivera.generator.Network.
+ *
+ * @param width the width of the network (in meters)
+ * @param length the length of the network (in meters)
+ * @param nodeCount the number of nodes (N)
+ * @param transmissionRange the transmission range of the nodes (in meters)
+ * @param dataNodeCount the number of Data Nodes in the network (p)
+ * @param dataPacketCount the number of data packets each Data Node has (q)
+ * @param storageCapacity the storage capacity each Storage Node has (m)
+ * @see BatchGenerator
+ */
+public record NetworkParameters(double width, double length, int nodeCount, double transmissionRange,
+                                int dataNodeCount, int dataPacketCount, int storageCapacity) {
+
+    /**
+     * Tests whether the Storage Nodes can hold every overflow packet (p * q &lt;= (N - p) * m).
+     *
+     * @return true if and only if the network is feasible; otherwise false
+     */
+    public boolean isFeasible() {
+        return (long) this.dataNodeCount * this.dataPacketCount
+                <= (long) (this.nodeCount - this.dataNodeCount) * this.storageCapacity;
+    }
+}
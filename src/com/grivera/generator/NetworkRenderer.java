@@ -0,0 +1,179 @@
+package com.grivera.generator;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders a network the same way SensorNetworkGraph shows it (axes, connections, nodes and highlighted
+ * min-cost paths) into a PNG image or an SVG document, without JavaFX.
+ *
+ * <p></p>
+ *
+ * Rendering needs neither a display nor the JavaFX toolkit, so it works in batch runs on headless machines.
+ * Every render draws into its own image, so different networks can be rendered by a thread pool at once,
+ * and a renderer can be shared between threads.
+ *
+ * <p></p>
+ *
+ * Usage:
+ * <p></p>
+ * NetworkRenderer renderer = new NetworkRenderer(network, 640, 640);
+ * <p>
+ * renderer.highlightPath(dn, sn);
+ * <p>
+ * renderer.saveAsPng("sensor_network.png");
+ *
+ * @see SensorNetworkGraph
+ */
+public final class NetworkRenderer {
+
+    private final Network network;
+    private final NetworkDrawing drawing;
+    private final int imageWidth;
+    private final int imageHeight;
+    private final List<List<SensorNode>> paths = new ArrayList<>();
+
+    /**
+     * Creates a renderer for a network.
+     *
+     * @param network the network to render
+     * @param width the width of the graph, as given to SensorNetworkGraph
+     * @param height the height of the graph, as given to SensorNetworkGraph
+     */
+    public NetworkRenderer(Network network, double width, double height) {
+        this.network = network;
+        this.drawing = new NetworkDrawing(network, width - 40, height - 40);
+
+        /* The same size as SensorNetworkGraph.saveAsPng() */
+        this.imageWidth = (int) width + 20;
+        this.imageHeight = (int) height + 20;
+    }
+
+    /**
+     * Highlights the min-cost path between the from and to Sensor Nodes in every later render.
+     *
+     * @param from the starting Sensor Node
+     * @param to the ending Sensor Node
+     */
+    public void highlightPath(SensorNode from, SensorNode to) {
+        List<SensorNode> path = this.network.getMinCostPath(from, to);
+        synchronized (this.paths) {
+            this.paths.add(path);
+        }
+    }
+
+    /**
+     * Removes every highlighted path.
+     */
+    public void resetHighlight() {
+        synchronized (this.paths) {
+            this.paths.clear();
+        }
+    }
+
+    /**
+     * Sets the most nodes a network can have to be rendered with its connections, nodes and labels;
+     * larger networks are rendered as a heatmap of their nodes.
+     *
+     * @param detailThreshold the most nodes to render in detail
+     */
+    public void setDetailThreshold(int detailThreshold) {
+        this.drawing.setDetailThreshold(detailThreshold);
+    }
+
+    private List<List<SensorNode>> getPaths() {
+        synchronized (this.paths) {
+            return List.copyOf(this.paths);
+        }
+    }
+
+    private void draw(Painter painter) {
+        this.drawing.drawAxis(painter);
+        this.drawing.drawNetwork(painter);
+        for (List<SensorNode> path : this.getPaths()) {
+            this.drawing.drawPath(painter, path);
+        }
+    }
+
+    /**
+     * Renders the network into a new image.
+     *
+     * @return the image
+     */
+    public BufferedImage render() {
+        BufferedImage image = new BufferedImage(this.imageWidth, this.imageHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, this.imageWidth, this.imageHeight);
+            this.draw(new AwtPainter(g));
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * Renders the network as an SVG document.
+     *
+     * @return the SVG document
+     */
+    public String renderSvg() {
+        StringWriter out = new StringWriter();
+        try {
+            this.writeSvg(out);
+        } catch (IOException e) {
+            /* A StringWriter never fails */
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Renders the network as an SVG document into a writer, writing each element as it is drawn.
+     * The writer is not closed.
+     *
+     * @param out the writer to write to
+     * @throws IOException if the writer fails
+     */
+    public void writeSvg(Writer out) throws IOException {
+        SvgPainter painter = new SvgPainter(out, this.imageWidth, this.imageHeight);
+        this.draw(painter);
+        painter.finish();
+    }
+
+    /**
+     * Renders the network and saves it as a PNG file.
+     *
+     * @param fileName the path to the png file to save to
+     * @throws IOException if the file cannot be written
+     */
+    public void saveAsPng(String fileName) throws IOException {
+        if (!ImageIO.write(this.render(), "png", Path.of(fileName).toFile())) {
+            throw new IOException(String.format("No PNG writer is available for \"%s\"!", fileName));
+        }
+    }
+
+    /**
+     * Renders the network and saves it as an SVG file.
+     *
+     * @param fileName the path to the svg file to save to
+     * @throws IOException if the file cannot be written
+     */
+    public void saveAsSvg(String fileName) throws IOException {
+        try (Writer out = Files.newBufferedWriter(Path.of(fileName), StandardCharsets.UTF_8)) {
+            this.writeSvg(out);
+        }
+    }
+}
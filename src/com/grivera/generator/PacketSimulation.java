@@ -0,0 +1,252 @@
+package com.grivera.generator;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Represents a packet-allocation simulation on a com.grivera.generator.Network: Data Nodes send their overflow
+ * packets to Storage Nodes, and every packet sent costs the min-cost path energy between the two nodes.
+ *
+ * <p></p>
+ *
+ * The packets left on every Data Node and the space left on every Storage Node are kept in int arrays indexed
+ * by uuid, and the costs are read from the network's cost matrix, so sending packets does not touch the nodes
+ * themselves. Every transfer is appended to a journal: snapshot() marks the journal, and restore() undoes the
+ * transfers made since, so going back to the start of a trial takes as long as the trial's transfers (not the
+ * size of the network). The journal has room for every packet to move one at a time (up to 65,536 transfers),
+ * so trials do not allocate unless they make more transfers than that.
+ *
+ * <p></p>
+ *
+ * A simulation is not thread-safe; each thread should run its own simulation.
+ *
+ * <p></p>
+ *
+ * Usage:
+ * <p></p>
+ * PacketSimulation sim = PacketSimulation.of(network);
+ * <p>
+ * int start = sim.snapshot();
+ * <p>
+ * sim.sendPackets(dn, sn, 3);
+ * <p>
+ * sim.restore(start);
+ *
+ * @see Network
+ * @see CostMatrix
+ */
+public final class PacketSimulation {
+
+    /* Each journal entry is (Data Node uuid, Storage Node uuid, packets) */
+    private static final int ENTRY_SIZE = 3;
+    /* A transfer moves at least one packet, so a trial never makes more transfers than there are packets */
+    private static final int MAX_INITIAL_JOURNAL_ENTRIES = 1 << 16;
+
+    private final int[] packetsLeft;
+    private final int[] spaceLeft;
+    private final int[] rowOfUuid;
+    private final int[] colOfUuid;
+    private final int[] costs;
+    private final int cols;
+
+    private int[] journal;
+    private int journalSize;
+    private long energy;
+
+    private PacketSimulation(int[] packetsLeft, int[] spaceLeft, int[] rowOfUuid, int[] colOfUuid, int[] costs,
+                             int cols, int journalEntries) {
+        this.packetsLeft = packetsLeft;
+        this.spaceLeft = spaceLeft;
+        this.rowOfUuid = rowOfUuid;
+        this.colOfUuid = colOfUuid;
+        this.costs = costs;
+        this.cols = cols;
+        this.journal = new int[Math.max(1, journalEntries) * ENTRY_SIZE];
+    }
+
+    /**
+     * Starts a simulation in which every Data Node has all of its overflow packets and every Storage Node is empty.
+     * The network's cost matrix is computed first if it has not been yet.
+     *
+     * @param network the network to simulate
+     * @return the simulation
+     */
+    public static PacketSimulation of(Network network) {
+        CostMatrix matrix = network.getCostMatrix();
+        List<DataNode> dNodes = network.getDataNodes();
+        List<StorageNode> sNodes = network.getStorageNodes();
+
+        int size = network.getSensorNodes().size() + 1;
+        int[] packetsLeft = new int[size];
+        int[] spaceLeft = new int[size];
+        int[] rowOfUuid = new int[size];
+        int[] colOfUuid = new int[size];
+        Arrays.fill(rowOfUuid, -1);
+        Arrays.fill(colOfUuid, -1);
+
+        long packets = 0;
+        for (DataNode dn : dNodes) {
+            packetsLeft[dn.getUuid()] = dn.getOverflowPackets();
+            packets += dn.getOverflowPackets();
+            rowOfUuid[dn.getUuid()] = matrix.getRowOf(dn.getUuid());
+        }
+        for (StorageNode sn : sNodes) {
+            spaceLeft[sn.getUuid()] = sn.getCapacity();
+            colOfUuid[sn.getUuid()] = matrix.getColumnOf(sn.getUuid());
+        }
+        return new PacketSimulation(packetsLeft, spaceLeft, rowOfUuid, colOfUuid, matrix.getCosts(),
+                matrix.getColumnCount(), (int) Math.min(packets, MAX_INITIAL_JOURNAL_ENTRIES));
+    }
+
+    private boolean isTransfer(int dn, int sn) {
+        return dn > 0 && dn < this.rowOfUuid.length && this.rowOfUuid[dn] >= 0 &&
+                sn > 0 && sn < this.colOfUuid.length && this.colOfUuid[sn] >= 0;
+    }
+
+    /**
+     * Tests if a Data Node can send packets to a Storage Node.
+     *
+     * @param dn the uuid of the Data Node
+     * @param sn the uuid of the Storage Node
+     * @param packets the number of packets to send
+     * @return true if and only if the Data Node has that many packets left and the Storage Node that much space
+     * left; otherwise false
+     */
+    public boolean canSendPackets(int dn, int sn, int packets) {
+        return this.isTransfer(dn, sn) && packets >= 0 &&
+                this.packetsLeft[dn] >= packets && this.spaceLeft[sn] >= packets;
+    }
+
+    public boolean canSendPackets(DataNode dn, StorageNode sn, int packets) {
+        return this.canSendPackets(dn.getUuid(), sn.getUuid(), packets);
+    }
+
+    /**
+     * Sends packets from a Data Node to a Storage Node if it can, charging their min-cost energy.
+     *
+     * @param dn the uuid of the Data Node
+     * @param sn the uuid of the Storage Node
+     * @param packets the number of packets to send
+     * @return true if the packets were sent; false if they could not be, in which case nothing changes
+     */
+    public boolean trySendPackets(int dn, int sn, int packets) {
+        if (!this.canSendPackets(dn, sn, packets)) {
+            return false;
+        }
+        if (packets == 0) {
+            return true;
+        }
+
+        if (this.journalSize == this.journal.length) {
+            this.journal = Arrays.copyOf(this.journal, this.journal.length * 2);
+        }
+        this.journal[this.journalSize++] = dn;
+        this.journal[this.journalSize++] = sn;
+        this.journal[this.journalSize++] = packets;
+
+        this.packetsLeft[dn] -= packets;
+        this.spaceLeft[sn] -= packets;
+        this.energy += (long) this.getCost(dn, sn) * packets;
+        return true;
+    }
+
+    /**
+     * Sends packets from a Data Node to a Storage Node, charging their min-cost energy.
+     *
+     * @param dn the Data Node
+     * @param sn the Storage Node
+     * @param packets the number of packets to send
+     * @throws IllegalArgumentException if the packets cannot be sent
+     */
+    public void sendPackets(DataNode dn, StorageNode sn, int packets) {
+        if (!this.trySendPackets(dn.getUuid(), sn.getUuid(), packets)) {
+            throw new IllegalArgumentException(
+                    String.format("Cannot send %d packets from %s (%d packets left) -> %s (%d space left)!",
+                            packets, dn.getName(), this.getPacketsLeft(dn), sn.getName(), this.getSpaceLeft(sn)
+                    )
+            );
+        }
+    }
+
+    /**
+     * Returns the energy it costs to send one packet from a Data Node to a Storage Node.
+     *
+     * @param dn the uuid of the Data Node
+     * @param sn the uuid of the Storage Node
+     * @return the min-cost of the path between the two nodes (in micro J)
+     */
+    public int getCost(int dn, int sn) {
+        if (!this.isTransfer(dn, sn)) {
+            throw new IllegalArgumentException(String.format("No cost between uuids %d -> %d!", dn, sn));
+        }
+        return this.costs[this.rowOfUuid[dn] * this.cols + this.colOfUuid[sn]];
+    }
+
+    /**
+     * Marks the current state, to go back to with restore().
+     *
+     * @return the mark of the current state
+     */
+    public int snapshot() {
+        return this.journalSize;
+    }
+
+    /**
+     * Goes back to the state of a snapshot by undoing every transfer made since.
+     *
+     * @param snapshot the mark returned by snapshot()
+     * @throws IllegalArgumentException if the snapshot was already undone by an earlier restore()
+     */
+    public void restore(int snapshot) {
+        if (snapshot < 0 || snapshot > this.journalSize || snapshot % ENTRY_SIZE != 0) {
+            throw new IllegalArgumentException(String.format("Invalid snapshot %d!", snapshot));
+        }
+
+        int dn, sn, packets;
+        while (this.journalSize > snapshot) {
+            packets = this.journal[--this.journalSize];
+            sn = this.journal[--this.journalSize];
+            dn = this.journal[--this.journalSize];
+
+            this.packetsLeft[dn] += packets;
+            this.spaceLeft[sn] += packets;
+            this.energy -= (long) this.costs[this.rowOfUuid[dn] * this.cols + this.colOfUuid[sn]] * packets;
+        }
+    }
+
+    /**
+     * Goes back to the start of the simulation, with every packet on its Data Node.
+     */
+    public void reset() {
+        this.restore(0);
+    }
+
+    public int getPacketsLeft(int uuid) {
+        return this.packetsLeft[uuid];
+    }
+
+    public int getPacketsLeft(DataNode dn) {
+        return this.packetsLeft[dn.getUuid()];
+    }
+
+    public int getSpaceLeft(int uuid) {
+        return this.spaceLeft[uuid];
+    }
+
+    public int getSpaceLeft(StorageNode sn) {
+        return this.spaceLeft[sn.getUuid()];
+    }
+
+    /**
+     * Returns the energy of every transfer since the start of the simulation.
+     *
+     * @return the total energy (in micro J)
+     */
+    public long getEnergy() {
+        return this.energy;
+    }
+
+    public int getTransferCount() {
+        return this.journalSize / ENTRY_SIZE;
+    }
+}
@@ -0,0 +1,20 @@
+package com.grivera.generator;
+
+/**
+ * Represents the drawing operations a network is drawn with, so the same drawing can target the JavaFX canvas,
+ * an image or an SVG document. Colors are 0xRRGGBB ints (0xAARRGGBB for fills), and coordinates are in pixels
+ * from the top-left corner.
+ *
+ * @see NetworkDrawing
+ */
+interface Painter {
+    void setStroke(int rgb);
+    void setLineWidth(double width);
+    void beginPath();
+    void moveTo(double x, double y);
+    void lineTo(double x, double y);
+    void stroke();    // Strokes every line since beginPath()
+    void strokeOval(double x, double y, double width, double height);
+    void fillRect(double x, double y, double width, double height, int argb);
+    void fillText(String text, double x, double y);    // Draws black text centered on (x, y)
+}
@@ -0,0 +1,34 @@
+package com.grivera.generator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event for a min-cost path query.
+ */
+@Name("com.grivera.PathQuery")
+@Label("Min-Cost Path Query")
+@Category("Sensor Network")
+@Description("Finds the min-cost path between two nodes")
+@StackTrace(false)
+final class PathQueryEvent extends Event {
+
+    @Label("Source")
+    @Description("The uuid of the starting node")
+    int source;
+
+    @Label("Target")
+    @Description("The uuid of the ending node")
+    int target;
+
+    @Label("Settled Nodes")
+    @Description("The number of nodes the search removed from its queue")
+    int settledCount;
+
+    @Label("Path Length")
+    int pathLength;
+}
@@ -1,12 +1,23 @@
 package com.grivera.generator;
 
-import com.grivera.util.Pair;
-import com.grivera.util.Tuple;
+import com.grivera.io.DimacsWriter;
+import com.grivera.io.NetworkData;
+import com.grivera.io.SnReader;
+import com.grivera.io.SnbFile;
+import com.grivera.util.Metrics;
+import com.grivera.util.LongIntLruCache;
+import com.grivera.util.SpatialGrid;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.random.RandomGenerator;
 
 /**
  * An implementation of a com.grivera.generator.Network that contains Data and Storage Sensor Nodes
@@ -17,13 +28,20 @@ public class SensorNetwork implements Network {
     private static final int BITS_PER_PACKET = 3200;
     private static final double E_elec = 100e-9;
     private static final double E_amp = 100e-12;
+    private static final int DEFAULT_COST_CACHE_CAPACITY = 1 << 16;
 
     private List<SensorNode> nodes;
     private List<DataNode> dNodes;
     private List<StorageNode> sNodes;
-    private Map<SensorNode, Set<SensorNode>> graph;
+    private CsrGraph graph;
+    private Map<SensorNode, Set<SensorNode>> adjacencyList;
+    private ShortestPathAlgorithm algorithm = ShortestPathAlgorithm.HEAP;
+    private ThreadLocal<ShortestPathEngine> engines = this.createEngines();
 
-    private final Map<Pair<SensorNode, SensorNode>, Integer> costMap = new HashMap<>();
+    private volatile LongIntLruCache costCache = new LongIntLruCache(DEFAULT_COST_CACHE_CAPACITY);
+    private volatile CostMatrix costMatrix;
+    private Path costMatrixFile;
+    private int parallelism = Runtime.getRuntime().availableProcessors();
 
     private final double width, length;
     private int dataPacketCount;
@@ -41,19 +59,13 @@ public class SensorNetwork implements Network {
      * @param m the storage capacity each Storage nodes has
      */
     public SensorNetwork(double x, double y, int N, double tr, int p, int q, int m) {
-        this.width = x;
-        this.length = y;
-        this.dataPacketCount = q;
-        this.storageCapacity = m;
-        this.transmissionRange = tr;
-
-        /* Used to separate each type of node for later use and retrieval */
-        this.dNodes = new ArrayList<>(p);
-        this.sNodes = new ArrayList<>(N - p);
-
-        /* Init the Sensor com.grivera.generator.Network to allow basic operations on it */
-        this.nodes = this.initNodes(N, p);
-        this.graph = this.initGraph(this.nodes);
+        this(generate(x, y, N, tr, p, q, m));
+    }
+
+    private static NetworkData generate(double x, double y, int N, double tr, int p, int q, int m) {
+        NetworkGenerator generator = new NetworkGenerator(x, y, N, tr, p, new SplittableRandom());
+        generator.place();
+        return generator.toNetworkData(q, m);
     }
 
     /**
@@ -63,168 +75,248 @@ public class SensorNetwork implements Network {
      *
      * The file must follow the following format:
      * <p></p>
-     * width length
+     * width length transmission_range
      * <p>
      * data_packets_per_node storage_capacity_per_node
      * <p>
-     * total_nodes transmission_range
+     * total_nodes [data_nodes]
      * <p>
-     * (d/s) id x y
+     * (d/s) x y
      * <p>
      * ...
      *
      * @param fileName the path to the .sn file
+     * @see SnReader
      */
     public SensorNetwork(String fileName) {
+        this(readSn(fileName));
+    }
+
+    private static NetworkData readSn(String fileName) {
         File file = new File(fileName);
         if (!file.exists()) {
             throw new IllegalArgumentException(String.format("File \"%s\" doesn't exist!", fileName));
         }
+        if (file.length() == 0) {
+            throw new IllegalArgumentException(String.format("File \"%s\" is empty!", fileName));
+        }
 
-        try (Scanner fileScanner = new Scanner(file)) {
-            if (!fileScanner.hasNext()) {
-                throw new IllegalArgumentException(String.format("File \"%s\" is empty!", fileName));
-            }
-
-            this.width = fileScanner.nextDouble();
-            this.length = fileScanner.nextDouble();
-            this.transmissionRange = fileScanner.nextDouble();
-            fileScanner.nextLine();
-
-            this.dataPacketCount = fileScanner.nextInt();
-            this.storageCapacity = fileScanner.nextInt();
-            fileScanner.nextLine();
-
-            int N = fileScanner.nextInt();
-            fileScanner.nextLine();
-
-            SensorNode.resetCounter();
-            StorageNode.resetCounter();
-            DataNode.resetCounter();
-
-            this.nodes = new ArrayList<>(N);
-            this.sNodes = new ArrayList<>(N);
-            this.dNodes = new ArrayList<>(N);
-
-            String[] lineArgs;
-            double x, y;
-            SensorNode node;
-            for (int i = 0; i < N; i++) {
-                lineArgs = fileScanner.nextLine().split(" ");
-                if (lineArgs.length != 3) {
-                    throw new IOException();
-                }
-
-                x = Double.parseDouble(lineArgs[1]);
-                y = Double.parseDouble(lineArgs[2]);
-
-                // Requires JDK 12+
-                node = switch (lineArgs[0]) {
-                    case "d" -> new DataNode(x, y, this.transmissionRange, this.dataPacketCount);
-                    case "s" -> new StorageNode(x, y, this.transmissionRange, this.storageCapacity);
-                    default -> throw new IOException();
-                };
-
-                this.nodes.add(node);
-                if (node instanceof DataNode) {
-                    this.dNodes.add((DataNode) node);
-                } else {
-                    this.sNodes.add((StorageNode) node);
-                }
-            }
-            this.graph = this.initGraph(this.nodes);
+        long start = Metrics.start();
+        try {
+            return SnReader.read(fileName);
         } catch (IOException e) {
             throw new IllegalArgumentException("Invalid file provided!");
+        } finally {
+            Metrics.stop(Metrics.Phase.FILE_READ, start);
         }
     }
 
-    public static SensorNetwork of(double x, double y, int N, double tr, int p, int q, int m) {
-        SensorNetwork network;
-        int attempts = 0;
-        do {
-            network = new SensorNetwork(x, y, N, tr, p, q, m);
-
-            if (!network.isFeasible()) {
-                System.out.println("Invalid network parameters! Please re-run the program.");
-                System.out.println("Exiting the program...");
-                System.exit(0);
+    /**
+     * Constructor to create a Sensor com.grivera.generator.Network from the contents of a network file.
+     *
+     * @param data the network parameters and the type and position of every node
+     */
+    private SensorNetwork(NetworkData data) {
+        this.width = data.width();
+        this.length = data.length();
+        this.transmissionRange = data.transmissionRange();
+        this.dataPacketCount = data.dataPacketCount();
+        this.storageCapacity = data.storageCapacity();
+
+        int N = data.nodeCount();
+        this.nodes = new ArrayList<>(N);
+        this.sNodes = new ArrayList<>(N);
+        this.dNodes = new ArrayList<>(N);
+
+        SensorNode node;
+        for (int i = 0; i < N; i++) {
+            node = switch (data.types()[i]) {
+                case NetworkData.DATA_NODE -> new DataNode(i + 1, this.dNodes.size() + 1,
+                        data.xs()[i], data.ys()[i], this.transmissionRange, this.dataPacketCount);
+                case NetworkData.STORAGE_NODE -> new StorageNode(i + 1, this.sNodes.size() + 1,
+                        data.xs()[i], data.ys()[i], this.transmissionRange, this.storageCapacity);
+                default -> throw new IllegalArgumentException("Invalid file provided!");
+            };
+
+            this.nodes.add(node);
+            if (node instanceof DataNode) {
+                this.dNodes.add((DataNode) node);
+            } else {
+                this.sNodes.add((StorageNode) node);
             }
+        }
+        this.graph = this.initGraph(this.nodes);
+    }
 
-            if (attempts > N * 1000) {
-                System.out.printf("Failed to create a connected network after %d tries! Please re-run the program.\n",
-                        N * 1000
-                );
-                System.out.println("Exiting the program...");
-                System.exit(0);
-            }
-            attempts++;
+    public static SensorNetwork of(double x, double y, int N, double tr, int p, int q, int m) {
+        return of(x, y, N, tr, p, q, m, GenerationMode.RESAMPLE);
+    }
+
+    public static SensorNetwork of(double x, double y, int N, double tr, int p, int q, int m, long seed) {
+        return of(x, y, N, tr, p, q, m, GenerationMode.RESAMPLE, seed);
+    }
+
+    /**
+     * Generates a random connected Sensor com.grivera.generator.Network.
+     *
+     * <p></p>
+     *
+     * Connectivity is tracked with a disjoint-set over the node positions while the placement is being chosen,
+     * so the network's nodes and graph are only built once for the final, connected placement.
+     *
+     * @param x the width of the network (in meters)
+     * @param y the length of the network (in meters)
+     * @param N the number of nodes
+     * @param tr the transmission range of the nodes (in meters)
+     * @param p the number of Data Nodes in the network
+     * @param q the number of data packets each Data Node has
+     * @param m the storage capacity each Storage nodes has
+     * @param mode how to place the nodes again while the network is not connected
+     * @return the generated network
+     * @see GenerationMode
+     */
+    public static SensorNetwork of(double x, double y, int N, double tr, int p, int q, int m, GenerationMode mode) {
+        return of(x, y, N, tr, p, q, m, mode, new SplittableRandom());
+    }
 
-        } while(!(network.isConnected()));
+    /**
+     * Generates a random connected Sensor com.grivera.generator.Network that is the same every time
+     * it is generated with the same parameters and seed.
+     *
+     * @param x the width of the network (in meters)
+     * @param y the length of the network (in meters)
+     * @param N the number of nodes
+     * @param tr the transmission range of the nodes (in meters)
+     * @param p the number of Data Nodes in the network
+     * @param q the number of data packets each Data Node has
+     * @param m the storage capacity each Storage nodes has
+     * @param mode how to place the nodes again while the network is not connected
+     * @param seed the seed of the node positions
+     * @return the generated network
+     */
+    public static SensorNetwork of(double x, double y, int N, double tr, int p, int q, int m, GenerationMode mode,
+                                   long seed) {
+        return of(x, y, N, tr, p, q, m, mode, new SplittableRandom(seed));
+    }
 
-        return network;
+    /* Shared by every overload of of, which only differ in where the node positions come from */
+    private static SensorNetwork of(double x, double y, int N, double tr, int p, int q, int m, GenerationMode mode,
+                                    RandomGenerator rand) {
+        NetworkParameters params = new NetworkParameters(x, y, N, tr, p, q, m);
+        if (!params.isFeasible()) {
+            System.out.println("Invalid network parameters! Please re-run the program.");
+            System.out.println("Exiting the program...");
+            System.exit(0);
+        }
+
+        try {
+            return generate(params, mode, rand);
+        } catch (IllegalStateException e) {
+            System.out.printf("%s Please re-run the program.\n", e.getMessage());
+            System.out.println("Exiting the program...");
+            System.exit(0);
+            return null;
+        }
     }
 
+    /**
+     * Generates a random connected network, reporting failures to the caller instead of exiting.
+     * Nodes get their ids from the new network only, so networks can be generated on several threads at once.
+     *
+     * @param params the parameters of the network
+     * @param mode how to place the nodes again while the network is not connected
+     * @param rand the source of the node positions
+     * @return the generated network
+     * @throws IllegalArgumentException if the Storage Nodes cannot hold every overflow packet
+     * @throws IllegalStateException if no connected placement was found
+     */
+    static SensorNetwork generate(NetworkParameters params, GenerationMode mode, RandomGenerator rand) {
+        if (!params.isFeasible()) {
+            throw new IllegalArgumentException("Invalid network parameters!");
+        }
+
+        NetworkGenerator generator = new NetworkGenerator(params.width(), params.length(), params.nodeCount(),
+                params.transmissionRange(), params.dataNodeCount(), rand);
+        generator.placeConnected(mode, params.nodeCount() * 1000);
+        return new SensorNetwork(generator.toNetworkData(params.dataPacketCount(), params.storageCapacity()));
+    }
+
+    /**
+     * Loads a network from an .sn file, or from a binary .snb file if the file name ends in .snb.
+     *
+     * @param fileName the path to the network file
+     * @return the loaded network
+     */
     public static SensorNetwork from(String fileName) {
+        if (fileName.endsWith(".snb")) {
+            return fromSnb(fileName);
+        }
         return new SensorNetwork(fileName);
     }
 
     public static SensorNetwork from(String fileName, int overflowPackets, int storageCapacity) {
-        SensorNetwork sn = new SensorNetwork(fileName);
+        SensorNetwork sn = from(fileName);
         sn.setOverflowPackets(overflowPackets);
         sn.setStorageCapacity(storageCapacity);
         return sn;
     }
 
-    private List<SensorNode> initNodes(int nodeCount, int p) {
-        List<SensorNode> nodes = new ArrayList<>(nodeCount);
-        Random rand = new Random();
-
-        /* Reset Counters (This is a temporary fix) */
-        SensorNode.resetCounter();
-        StorageNode.resetCounter();
-        DataNode.resetCounter();
-
-        /* Choose p random nodes to be Generator Nodes, the rest are Storage Nodes */
-        int choice;
-        double x, y;
-        SensorNode tmp;
-        for (int index = 0; index < nodeCount; index++) {
-            choice = rand.nextInt(1, 11);
-            x = this.width * rand.nextDouble();
-            y = this.length * rand.nextDouble();
-
-            if ((choice < 5 && p > 0) || nodeCount - index <= p) {
-                tmp = new DataNode(x, y, this.transmissionRange, this.dataPacketCount);
-                this.dNodes.add((DataNode) tmp);
-                p--;
-            } else {
-                tmp = new StorageNode(x, y, this.transmissionRange, this.storageCapacity);
-                this.sNodes.add((StorageNode) tmp);
-            }
-            nodes.add(tmp);
+    /**
+     * Loads a network from a binary .snb file by memory-mapping it.
+     *
+     * @param fileName the path to the .snb file
+     * @return the loaded network
+     * @see SnbFile
+     */
+    public static SensorNetwork fromSnb(String fileName) {
+        if (!new File(fileName).exists()) {
+            throw new IllegalArgumentException(String.format("File \"%s\" doesn't exist!", fileName));
         }
-        return nodes;
-    }
 
-    private Map<SensorNode, Set<SensorNode>> initGraph(List<SensorNode> nodes) {
-        Map<SensorNode, Set<SensorNode>> graph = new HashMap<>();
+        NetworkData data;
+        long start = Metrics.start();
+        try {
+            data = SnbFile.read(fileName);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid file provided!");
+        } finally {
+            Metrics.stop(Metrics.Phase.FILE_READ, start);
+        }
 
-        /* Create the adjacency graph */
-        SensorNode node1;
-        SensorNode node2;
-        for (int index1 = 0; index1 < nodes.size(); index1++) {
-            node1 = nodes.get(index1);
+        return new SensorNetwork(data);
+    }
 
-            /* Populate the graph with adjacent nodes */
-            graph.putIfAbsent(node1, new HashSet<>());
-            for (int index2 = index1 + 1; index2 < nodes.size(); index2++) {
-                node2 = nodes.get(index2);
-                graph.putIfAbsent(node2, new HashSet<>());
-                if (node1.inRangeOf(node2)) {
-                    graph.get(node1).add(node2);
-                    graph.get(node2).add(node1); // This makes the graph a non-directed graph
-                }
+    CsrGraph initGraph(List<SensorNode> nodes) {
+        GraphBuildEvent event = new GraphBuildEvent();
+        event.begin();
+        long start = Metrics.start();
+        CsrGraph.Builder builder = new CsrGraph.Builder(nodes.size());
+
+        double[] xs = new double[nodes.size()];
+        double[] ys = new double[nodes.size()];
+        for (int index = 0; index < nodes.size(); index++) {
+            xs[index] = nodes.get(index).getX();
+            ys[index] = nodes.get(index).getY();
+            builder.setPosition(nodes.get(index).getUuid(), xs[index], ys[index]);
+        }
+
+        /* Only nodes in neighbouring grid cells can be in range, the exact check is still inRangeOf */
+        SpatialGrid grid = new SpatialGrid(xs, ys, this.transmissionRange + 0.0001);
+        grid.forEachCandidatePair((index1, index2) -> {
+            SensorNode node1 = nodes.get(index1);
+            SensorNode node2 = nodes.get(index2);
+            if (node1.inRangeOf(node2)) {
+                builder.addEdge(node1.getUuid(), node2.getUuid(), this.getCost(node1, node2));
             }
+        });
+        CsrGraph graph = builder.build();
+        Metrics.stop(Metrics.Phase.GRAPH_BUILD, start);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.nodeCount = nodes.size();
+            event.edgeCount = graph.getEdgeCount();
+            event.commit();
         }
         return graph;
     }
@@ -277,23 +369,189 @@ public class SensorNetwork implements Network {
         return p * this.dataPacketCount <= (this.nodes.size() - p) * this.storageCapacity;
     }
 
+    /**
+     * Returns the adjacency list of the network, building it from the internal graph the first time it is needed.
+     *
+     * @return an unmodifiable map from each sensor node to the set of sensor nodes in its range
+     */
     @Override
-    public Map<SensorNode, Set<SensorNode>> getAdjacencyList() {
-        return Collections.unmodifiableMap(this.graph);
+    public synchronized Map<SensorNode, Set<SensorNode>> getAdjacencyList() {
+        if (this.adjacencyList == null) {
+            Map<SensorNode, Set<SensorNode>> adjacencyList = new HashMap<>();
+            Set<SensorNode> neighbors;
+            for (SensorNode node : this.nodes) {
+                neighbors = new HashSet<>();
+                for (int i = this.graph.getStart(node.getUuid()); i < this.graph.getEnd(node.getUuid()); i++) {
+                    neighbors.add(this.getNode(this.graph.getNeighbor(i)));
+                }
+                adjacencyList.put(node, Collections.unmodifiableSet(neighbors));
+            }
+            this.adjacencyList = Collections.unmodifiableMap(adjacencyList);
+        }
+        return this.adjacencyList;
     }
 
+    CsrGraph getGraph() {
+        return this.graph;
+    }
+
+    private SensorNode getNode(int uuid) {
+        return this.nodes.get(uuid - 1);
+    }
+
+    /**
+     * Returns the min-costs from every Data Node to every Storage Node,
+     * computing them in parallel the first time they are needed.
+     * Once computed, the matrix is read without taking the network's lock.
+     *
+     * @return the cost matrix of the network
+     * @see CostMatrix
+     */
+    @Override
+    public CostMatrix getCostMatrix() {
+        CostMatrix matrix = this.costMatrix;
+        if (matrix != null) {
+            return matrix;
+        }
+        synchronized (this) {
+            if (this.costMatrix == null) {
+                this.costMatrix = this.loadCostMatrix();
+            }
+            return this.costMatrix;
+        }
+    }
+
+    /* Called with the network's lock held, only while the cost matrix has not been computed yet */
+    private CostMatrix loadCostMatrix() {
+        if (this.costMatrixFile == null) {
+            return CostMatrix.of(this, this.parallelism);
+        }
+
+        /* Networks given a cost matrix file keep their costs in a sidecar, reused while the network is unchanged */
+        byte[] digest = CostMatrixFile.digest(this.transmissionRange, this.nodes);
+        long start = Metrics.start();
+        try {
+            int[] costs = CostMatrixFile.read(this.costMatrixFile, digest, this.dNodes.size(), this.sNodes.size());
+            if (costs != null) {
+                return CostMatrix.of(this, costs);
+            }
+        } catch (IOException e) {
+            /* An unreadable sidecar is treated as missing */
+        } finally {
+            Metrics.stop(Metrics.Phase.FILE_READ, start);
+        }
+
+        CostMatrix matrix = CostMatrix.of(this, this.parallelism);
+        try {
+            CostMatrixFile.write(this.costMatrixFile, digest, matrix);
+        } catch (IOException e) {
+            /* The sidecar only saves time on the next run, so failing to write it is not an error */
+        }
+        return matrix;
+    }
+
+    /**
+     * Sets the network file whose sidecar (the file name followed by .costs) keeps the cost matrix between runs,
+     * so later runs on the same network read the costs back instead of searching from every Data Node again.
+     * No sidecar is read or written unless this is called. The sidecar is ignored and rewritten whenever
+     * the transmission range or any node changes, and is not written if its directory is not writable.
+     *
+     * @param fileName the path to the network's file, or null to not use a sidecar file
+     */
+    public synchronized void setCostMatrixFile(String fileName) {
+        this.costMatrixFile = (fileName != null) ? Path.of(fileName + CostMatrixFile.EXTENSION) : null;
+    }
+
+    /**
+     * Sets the number of threads used to compute the cost matrix.
+     *
+     * @param parallelism the number of threads (defaults to the number of available processors)
+     */
+    public void setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException(String.format("Invalid parallelism %d!", parallelism));
+        }
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Sets the priority queue used by the network's shortest-path searches.
+     * Every algorithm finds the same min-costs.
+     *
+     * @param algorithm the shortest-path algorithm (defaults to HEAP)
+     * @see ShortestPathAlgorithm
+     */
+    public void setShortestPathAlgorithm(ShortestPathAlgorithm algorithm) {
+        this.algorithm = Objects.requireNonNull(algorithm);
+        this.engines = this.createEngines();
+    }
+
+    private ThreadLocal<ShortestPathEngine> createEngines() {
+        ShortestPathAlgorithm algorithm = this.algorithm;
+        return ThreadLocal.withInitial(() -> new ShortestPathEngine(this.graph, algorithm));
+    }
+
+    /**
+     * Calculates the min-cost between two sensor nodes. (Data Node, Storage Node) pairs are read from the cost
+     * matrix once it has been computed (i.e. by getCostMatrix or saveAsCsInp); every other query runs a single
+     * A* search, so a query never computes the whole matrix.
+     *
+     * @param from the starting sensor node
+     * @param to the ending sensor node
+     * @return the min-cost of the path between the two sensor nodes
+     */
     @Override
     public int calculateMinCost(SensorNode from, SensorNode to) {
-        Pair<SensorNode, SensorNode> pair = Pair.of(from, to);
-        if (costMap.containsKey(pair)) {
-            return costMap.get(pair);
+        CostMatrix matrix = this.costMatrix;
+        if (matrix != null && matrix.contains(from, to)) {
+            return matrix.getCost(from, to);
         }
 
-        int cost = this.calculateCostOfPath(this.getMinCostPath(from, to));
-        costMap.put(pair, cost);
+        /* Costs are never negative, so -1 marks a miss */
+        LongIntLruCache cache = this.costCache;
+        long key = ((long) from.getUuid() << 32) | to.getUuid();
+        int cost = cache.get(key, -1);
+        if (cost >= 0) {
+            return cost;
+        }
+
+        ShortestPathEngine engine = this.engines.get();
+        engine.searchTo(from.getUuid(), to.getUuid());
+        cost = engine.getDistance(to.getUuid());
+        cache.put(key, cost);
         return cost;
     }
 
+    /**
+     * Sets how many min-costs that are not read from the cost matrix are kept,
+     * dropping the costs cached so far. The least recently used costs are evicted first.
+     *
+     * @param capacity the most min-costs to keep
+     */
+    public void setCostCacheCapacity(int capacity) {
+        this.costCache = new LongIntLruCache(capacity);
+    }
+
+    /**
+     * Calculates the min-cost from the given sensor node to every sensor node in the network
+     * with a single shortest-path search.
+     *
+     * @param from the starting sensor node
+     * @return the min-costs indexed by the uuid of each sensor node (index 0 is unused);
+     * unreachable nodes have a cost of 0, the same as the cost of the path returned by getMinCostPath
+     */
+    @Override
+    public int[] calculateMinCosts(SensorNode from) {
+        ShortestPathEngine engine = this.engines.get();
+        engine.searchFrom(from.getUuid());
+
+        int[] costs = new int[this.nodes.size() + 1];
+        for (int uuid = 1; uuid < costs.length; uuid++) {
+            costs[uuid] = engine.getDistance(uuid);
+        }
+        return costs;
+    }
+
     /**
      * Returns the sensor nodes in the min-cost path between the from and to sensor nodes
      *
@@ -303,7 +561,26 @@ public class SensorNetwork implements Network {
      */
     @Override
     public List<SensorNode> getMinCostPath(SensorNode from, SensorNode to) {
-        return bfs(this.graph, from, to);
+        PathQueryEvent event = new PathQueryEvent();
+        event.begin();
+
+        ShortestPathEngine engine = this.engines.get();
+        engine.searchTo(from.getUuid(), to.getUuid());
+
+        LinkedList<SensorNode> deque = new LinkedList<>();
+        for (int curr = to.getUuid(); curr > 0; curr = engine.getPrevious(curr)) {
+            deque.push(this.getNode(curr));
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.source = from.getUuid();
+            event.target = to.getUuid();
+            event.settledCount = engine.getSettledCount();
+            event.pathLength = deque.size();
+            event.commit();
+        }
+        return deque;
     }
 
     /**
@@ -320,6 +597,18 @@ public class SensorNetwork implements Network {
         return currCost;
     }
 
+    /**
+     * Solves the min-cost flow of the network in process, giving the same total cost as running CS2
+     * on the file written by saveAsCsInp.
+     *
+     * @return how many packets each Data Node sends to each Storage Node, and the total cost
+     * @see MinCostFlow
+     */
+    @Override
+    public MinCostFlow calculateMinCostFlow() {
+        return MinCostFlow.of(this);
+    }
+
     /**
      * Saves the network into a .sn file format.
      *
@@ -327,9 +616,18 @@ public class SensorNetwork implements Network {
      */
     @Override
     public void save(String fileName) {
-        File file = new File(fileName);
+        try {
+            this.writeSn(fileName);
+            System.out.printf("Saved sensor network in file \"%s\"!\n", fileName);
+        } catch (IOException e) {
+            System.out.printf("ERROR: Failed to create \"%s\"!\n", fileName);
+        }
+    }
 
-        try (PrintWriter pw = new PrintWriter(file)) {
+    /* Same as save, but reports failures to the caller instead of printing them */
+    void writeSn(String fileName) throws IOException {
+        long start = Metrics.start();
+        try (PrintWriter pw = new PrintWriter(fileName)) {
             pw.printf("%f %f %f\n", this.getWidth(), this.getLength(), this.transmissionRange);   // X, Y, Tr
             pw.printf("%d %d\n", this.dataPacketCount, this.storageCapacity);  // q m
             pw.printf("%d %d\n", this.nodes.size(), this.dNodes.size());       // N p
@@ -337,6 +635,44 @@ public class SensorNetwork implements Network {
             for (SensorNode n : this.nodes) {
                 pw.printf("%s %f %f\n", (n instanceof DataNode) ? 'd' : 's', n.getX(), n.getY());
             }
+            if (pw.checkError()) {
+                throw new IOException(String.format("Failed to write \"%s\"!", fileName));
+            }
+        }
+        if (Metrics.isEnabled()) {
+            Metrics.stop(Metrics.Phase.FILE_WRITE, start);
+            Metrics.add(Metrics.Counter.BYTES_WRITTEN, new File(fileName).length());
+        }
+    }
+
+    /**
+     * Saves the network into the binary .snb file format, which loads much faster than .sn for large networks.
+     *
+     * @param fileName the path to the file to save to
+     * @see SnbFile
+     */
+    @Override
+    public void saveAsSnb(String fileName) {
+        int N = this.nodes.size();
+        byte[] types = new byte[N];
+        double[] xs = new double[N];
+        double[] ys = new double[N];
+        SensorNode n;
+        for (int i = 0; i < N; i++) {
+            n = this.nodes.get(i);
+            types[i] = (n instanceof DataNode) ? NetworkData.DATA_NODE : NetworkData.STORAGE_NODE;
+            xs[i] = n.getX();
+            ys[i] = n.getY();
+        }
+
+        long start = Metrics.start();
+        try {
+            SnbFile.write(fileName, new NetworkData(this.width, this.length, this.transmissionRange,
+                    this.dataPacketCount, this.storageCapacity, types, xs, ys));
+            if (Metrics.isEnabled()) {
+                Metrics.stop(Metrics.Phase.FILE_WRITE, start);
+                Metrics.add(Metrics.Counter.BYTES_WRITTEN, new File(fileName).length());
+            }
             System.out.printf("Saved sensor network in file \"%s\"!\n", fileName);
         } catch (IOException e) {
             System.out.printf("ERROR: Failed to create \"%s\"!\n", fileName);
@@ -344,22 +680,28 @@ public class SensorNetwork implements Network {
     }
 
     private boolean dfs(List<SensorNode> nodes) {
-        Stack<SensorNode> stack = new Stack<>();
-        Set<SensorNode> seen = new HashSet<>();
-        stack.push(nodes.get(0));
-
-        SensorNode curr;
-        while (!stack.isEmpty()) {
-            curr = stack.pop();
-            seen.add(curr);
-
-            for (SensorNode neighbor : this.graph.getOrDefault(curr, Set.of())) {
-                if (!seen.contains(neighbor)) {
-                    stack.push(neighbor);
+        int[] stack = new int[nodes.size()];
+        boolean[] seen = new boolean[nodes.size() + 1];
+        int top = 0;
+        int seenCount = 1;
+        stack[top++] = nodes.get(0).getUuid();
+        seen[nodes.get(0).getUuid()] = true;
+
+        int curr;
+        int neighbor;
+        while (top > 0) {
+            curr = stack[--top];
+
+            for (int i = this.graph.getStart(curr); i < this.graph.getEnd(curr); i++) {
+                neighbor = this.graph.getNeighbor(i);
+                if (!seen[neighbor]) {
+                    seen[neighbor] = true;
+                    seenCount++;
+                    stack[top++] = neighbor;
                 }
             }
         }
-        return seen.size() == nodes.size();
+        return seenCount == nodes.size();
     }
 
     /**
@@ -370,95 +712,111 @@ public class SensorNetwork implements Network {
      */
     @Override
     public void saveAsCsInp(String fileName) {
-        final int supply = this.dataPacketCount * this.dNodes.size();
-        final int demand = -supply;
-        final int minFlow = 0;
-        final int maxFlow = this.dataPacketCount;
-
-        File file = new File(fileName);
-        try (PrintWriter writer = new PrintWriter(file)) {
-            /* Header */
-            writer.printf("c Min-Cost flow problem with %d nodes and %d arcs (edges)\n",
-                    this.nodes.size() + 2, this.getEdgeCount());
-            writer.printf("p min %d %d\n",
-                    this.nodes.size() + 2, this.getEdgeCount());
-            writer.println();
-
-            /* Set s (source) and t (sink) nodes */
-            writer.printf("c Supply of %d at node %d (\"Source\")\n", supply, 0);
-            writer.printf("n %d %d\n", 0, supply);
-            writer.println();
-
-            writer.printf("c Demand of %d at node %d (\"Sink\")\n", demand, this.nodes.size() + 1);
-            writer.printf("n %d %d\n", this.nodes.size() + 1, demand);
-            writer.println();
-
-            /* Arcs */
-            writer.println("c arc list follows");
-            writer.println("c arc has <tail> <head> <capacity l.b.> <capacity u.b> <cost>");
-
-            /* Path from Source to DN is always 0 cost (not represented in the network) */
-            for (SensorNode dn : this.dNodes) {
-                writer.printf("a %d %d %d %d %d\n", 0, dn.getUuid(), minFlow, maxFlow, 0);
-            }
-
-            /* Find all paths from DN#->SN# */
-            List<SensorNode> path;
-            int currCost;
-            for (SensorNode dn : this.dNodes) {
-                for (SensorNode sn : this.sNodes) {
-                    path = this.bfs(this.graph, dn, sn);
-                    currCost = this.calculateCostOfPath(path);
-                    writer.printf("a %d %d %d %d %d\n", dn.getUuid(), sn.getUuid(), minFlow, maxFlow, currCost);
-                }
-            }
-
-            /* Path from SN to Sink is always 0 cost (not represented in the network) */
-            for (SensorNode sn : this.sNodes) {
-                writer.printf("a %d %d %d %d %d\n",
-                        sn.getUuid(), this.nodes.size() + 1, minFlow, this.storageCapacity, 0);
-            }
+        try (DimacsWriter writer = new DimacsWriter(
+                FileChannel.open(Path.of(fileName), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)
+        )) {
+            this.writeCsInp(writer);
             System.out.printf("Saved flow network in file \"%s\"!\n", fileName);
         } catch (IOException e) {
             System.out.printf("ERROR: Failed to create %s\n", fileName);
         }
     }
 
-    private List<SensorNode> bfs(Map<SensorNode, Set<SensorNode>> graph, SensorNode start, SensorNode end) {
-        Queue<Tuple<SensorNode, Integer, SensorNode>> q = new PriorityQueue<>(Comparator.comparing(Tuple::second));
-        Map<SensorNode, SensorNode> backPointers = new HashMap<>();
-        q.offer(Tuple.of(start, 0, null));
+    /**
+     * Writes the network in the <b>DIMAC</b> format to a stream, i.e. the standard input of a CS2 process.
+     * The stream is flushed but not closed.
+     *
+     * @param out the stream to write to
+     * @throws IOException if the stream cannot be written to
+     */
+    public void saveAsCsInp(OutputStream out) throws IOException {
+        DimacsWriter writer = new DimacsWriter(out);
+        this.writeCsInp(writer);
+        writer.flush();
+    }
 
-        Tuple<SensorNode, Integer, SensorNode> currPair;
-        SensorNode curr;
-        SensorNode prev;
-        int value;
-        while (!q.isEmpty()) {
-            currPair = q.poll();
-            curr = currPair.first();
-            value = currPair.second();
-            prev = currPair.third();
+    /**
+     * Writes the network in the <b>DIMAC</b> format to a channel. The channel is not closed.
+     *
+     * @param channel the channel to write to
+     * @throws IOException if the channel cannot be written to
+     */
+    public void saveAsCsInp(WritableByteChannel channel) throws IOException {
+        DimacsWriter writer = new DimacsWriter(channel);
+        this.writeCsInp(writer);
+        writer.flush();
+    }
 
-            if (!backPointers.containsKey(curr)) {
-                backPointers.put(curr, prev);
-                for (SensorNode neighbor : graph.getOrDefault(curr, Set.of())) {
-                    q.offer(Tuple.of(neighbor, value + this.getCost(curr, neighbor), curr));
-                }
-            }
+    private void writeCsInp(DimacsWriter writer) throws IOException {
+        /* Computed first so the time spent finding paths is not counted as writing */
+        CostMatrix costs = this.getCostMatrix();
+        DimacsExportEvent event = new DimacsExportEvent();
+        event.begin();
+        long start = Metrics.start();
+        long bytesBefore = writer.getBytesWritten();
+
+        final int supply = this.dataPacketCount * this.dNodes.size();
+        final int demand = -supply;
+        final int minFlow = 0;
+        final int maxFlow = this.dataPacketCount;
+        final int sink = this.nodes.size() + 1;
+
+        /* Header */
+        writer.comment(String.format("Min-Cost flow problem with %d nodes and %d arcs (edges)",
+                this.nodes.size() + 2, this.getEdgeCount()));
+        writer.problem("min", this.nodes.size() + 2, this.getEdgeCount());
+        writer.blankLine();
+
+        /* Set s (source) and t (sink) nodes */
+        writer.comment(String.format("Supply of %d at node %d (\"Source\")", supply, 0));
+        writer.node(0, supply);
+        writer.blankLine();
+
+        writer.comment(String.format("Demand of %d at node %d (\"Sink\")", demand, sink));
+        writer.node(sink, demand);
+        writer.blankLine();
+
+        /* Arcs */
+        writer.comment("arc list follows");
+        writer.comment("arc has <tail> <head> <capacity l.b.> <capacity u.b> <cost>");
+
+        /* Path from Source to DN is always 0 cost (not represented in the network) */
+        for (SensorNode dn : this.dNodes) {
+            writer.arc(0, dn.getUuid(), minFlow, maxFlow, 0);
+        }
 
-            if (curr.equals(end)) {
-                break;
+        /* Find all paths from DN#->SN# */
+        int[] snUuids = new int[this.sNodes.size()];
+        for (int col = 0; col < snUuids.length; col++) {
+            snUuids[col] = this.sNodes.get(col).getUuid();
+        }
+        int dnUuid;
+        for (int row = 0; row < this.dNodes.size(); row++) {
+            dnUuid = this.dNodes.get(row).getUuid();
+            for (int col = 0; col < snUuids.length; col++) {
+                writer.arc(dnUuid, snUuids[col], minFlow, maxFlow, costs.getCost(row, col));
             }
         }
 
-        LinkedList<SensorNode> deque = new LinkedList<>();
-        curr = end;
-        while (curr != null) {
-            deque.push(curr);
-            curr = backPointers.getOrDefault(curr, null);
+        /* Path from SN to Sink is always 0 cost (not represented in the network) */
+        for (int snUuid : snUuids) {
+            writer.arc(snUuid, sink, minFlow, this.storageCapacity, 0);
         }
 
-        return deque;
+        if (Metrics.isEnabled()) {
+            Metrics.stop(Metrics.Phase.FILE_WRITE, start);
+            Metrics.add(Metrics.Counter.ARCS_WRITTEN, this.getEdgeCount());
+            Metrics.add(Metrics.Counter.BYTES_WRITTEN, writer.getBytesWritten() - bytesBefore);
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.nodeCount = this.nodes.size() + 2;
+            event.arcCount = this.getEdgeCount();
+            event.bytesWritten = writer.getBytesWritten() - bytesBefore;
+            event.commit();
+        }
     }
 
     private int getCost(SensorNode from, SensorNode to) {
@@ -1,5 +1,6 @@
 package com.grivera.generator;
 
+import javafx.application.Platform;
 import javafx.embed.swing.SwingFXUtils;
 import javafx.geometry.VPos;
 import javafx.scene.canvas.Canvas;
@@ -13,22 +14,33 @@ import javax.imageio.ImageIO;
 import java.awt.image.RenderedImage;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Represents the Sensor com.grivera.generator.Network graph pane on the main stage.
+ *
+ * <p></p>
+ *
+ * The axes and the network are drawn once on a base canvas, and highlighted paths on an overlay canvas above it,
+ * so highlighting or clearing a path only redraws the paths. Highlights can be changed from any thread: the
+ * drawing always happens on the JavaFX Application Thread, and a burst of changes is drawn once.
+ *
  * @see Pane javafx.scene.layout.Pane
  */
 public class SensorNetworkGraph extends Pane {
 
     private final Canvas canvas;
     private final GraphicsContext gc;
+    private final Painter painter;
+    private final Canvas overlay;
+    private final GraphicsContext overlayGc;
+    private final Painter overlayPainter;
     private final Network network;
-    private final double X_SCALE;
-    private final double Y_SCALE;
-    private boolean isHighlighted;
+    private final NetworkDrawing drawing;
+    private final List<List<SensorNode>> paths = new ArrayList<>();
+    private final AtomicBoolean overlayPending = new AtomicBoolean();
 
     /**
      * Creates the pane with the network on it.
@@ -41,111 +53,20 @@ public class SensorNetworkGraph extends Pane {
         this.setWidth(width);
         this.setHeight(height);
 
-        this.X_SCALE = network.getWidth() / 10;
-        this.Y_SCALE = network.getLength() / 10;
-
         this.canvas = new Canvas(width - 40, height - 40);
         this.gc = this.canvas.getGraphicsContext2D();
-        this.drawAxis();
-        this.drawNetwork(network);
-        this.getChildren().add(this.canvas);
-    }
-
-    private void drawAxis() {
-
-        this.gc.beginPath();
-        this.gc.setStroke(Color.BLACK);
-        this.gc.setLineWidth(5);
-
-        /* Y-axis */
-        this.gc.moveTo(40, 40);
-        this.gc.lineTo(40, this.canvas.getHeight() - 40);
-
-        /* X-axis */
-        this.gc.moveTo(40, this.canvas.getHeight() - 40);
-        this.gc.lineTo(this.canvas.getWidth() - 40, this.canvas.getHeight() - 40);
-
-        /* Draw x- and y-axis */
-        this.gc.stroke();
-        this.gc.closePath();
-
-        this.gc.beginPath();
-        this.gc.setLineWidth(1);
-        this.gc.setStroke(Color.GRAY);
-        this.gc.setTextAlign(TextAlignment.CENTER);
-        this.gc.setTextBaseline(VPos.CENTER);
-
-        double increment = 0.0;
-        for (int i = 40; i < this.canvas.getWidth() - 40; i += 50) {
-            this.gc.fillText(String.format("%.2f", increment), i, this.canvas.getHeight() - 20);
-            increment += this.X_SCALE;
-
-            if (i == 40) {
-                continue;
-            }
-            this.gc.moveTo(i, 40);
-            this.gc.lineTo(i, this.canvas.getHeight() - 40);
-        }
-
-        increment = 0.0;
-        for (int i = 40; i < this.canvas.getWidth() - 40; i += 50) {
-
-            this.gc.fillText(String.format("%.2f", increment), 20, this.canvas.getHeight() - i);
-            increment += this.Y_SCALE;
-
-            if (i == 40) {
-                continue;
-            }
-            this.gc.moveTo(40, this.canvas.getHeight() - i);
-            this.gc.lineTo(this.canvas.getWidth() - 40, this.canvas.getHeight() - i);
-        }
-
-        /* Draw */
-        this.gc.stroke();
-        this.gc.closePath();
-    }
-
-    private void drawNetwork(Network network) {
-        this.gc.beginPath();
-        this.gc.setStroke(Color.SKYBLUE);
-
-        SensorNode n1;
-        for (Map.Entry<SensorNode, Set<SensorNode>> entry : network.getAdjacencyList().entrySet()) {
-            n1 = entry.getKey();
-            for (SensorNode n2 : entry.getValue()) {
-                this.drawLine(n1, n2);
-            }
-        }
-        this.gc.stroke();
-
         this.gc.setTextAlign(TextAlignment.CENTER);
         this.gc.setTextBaseline(VPos.CENTER);
-
-        for (SensorNode node : network.getSensorNodes()) {
-            if (node instanceof DataNode) {
-                this.gc.setStroke(Color.RED);
-            } else {
-                this.gc.setStroke(Color.GREEN);
-            }
-            this.drawNode(node, 8, true);
-        }
-        this.gc.closePath();
-    }
-
-    private void drawNode(SensorNode node, double radius, boolean hasLabel) {
-        double x, y;
-        x = scaleX(node.getX());
-        y = scaleY(node.getY());
-        this.gc.strokeOval(x - 4, y - 4, radius, radius);
-
-        if (hasLabel) {
-            this.gc.fillText(node.getName(), x, y - (radius * 1.25));
-        }
-    }
-
-    private void drawLine(SensorNode from, SensorNode to) {
-        this.gc.moveTo(scaleX(from.getX()), scaleY(from.getY()));
-        this.gc.lineTo(scaleX(to.getX()), scaleY(to.getY()));
+        this.painter = new FxPainter(this.gc);
+        this.drawing = new NetworkDrawing(network, this.canvas.getWidth(), this.canvas.getHeight());
+        this.drawing.drawAxis(this.painter);
+        this.drawing.drawNetwork(this.painter);
+
+        this.overlay = new Canvas(this.canvas.getWidth(), this.canvas.getHeight());
+        this.overlay.setMouseTransparent(true);
+        this.overlayGc = this.overlay.getGraphicsContext2D();
+        this.overlayPainter = new FxPainter(this.overlayGc);
+        this.getChildren().addAll(this.canvas, this.overlay);
     }
 
     /**
@@ -163,54 +84,77 @@ public class SensorNetworkGraph extends Pane {
         );
         System.out.printf("Cost of Path: %d micro J\n", this.network.calculateCostOfPath(path));
 
-        this.gc.beginPath();
-        this.gc.setStroke(Color.DARKORANGE);
-        this.gc.setLineWidth(2);
-
-        /* Highlight nodes */
-        for (SensorNode node : path) {
-            drawNode(node, 10, false);
-        }
-
-        /* Highlight the connections */
-        for (int i = 0; i < path.size() - 1; i++) {
-            this.drawLine(path.get(i), path.get(i + 1));
+        synchronized (this.paths) {
+            this.paths.add(path);
         }
-        this.gc.stroke();
-        this.gc.closePath();
-
-        this.isHighlighted = true;
+        this.requestOverlay();
     }
 
     /**
      * Resets the highlighted orange path.
      */
     public void resetHighlight() {
-        if (this.isHighlighted) {
-            this.gc.clearRect(0, 0, this.getWidth(), this.getHeight());
-            this.drawAxis();
-            this.drawNetwork(this.network);
+        synchronized (this.paths) {
+            if (this.paths.isEmpty()) {
+                return;
+            }
+            this.paths.clear();
         }
-        this.isHighlighted = false;
+        this.requestOverlay();
     }
 
-    private double scaleX(double x) {
-        return this.pointToScale(x, this.X_SCALE);
+    /* Redraws the overlay on the FX thread, once for however many changes come in before it runs */
+    private void requestOverlay() {
+        if (this.overlayPending.compareAndSet(false, true)) {
+            runOnFxThread(this::drawOverlay);
+        }
     }
 
-    private double scaleY(double y) {
-        return this.canvas.getHeight() - this.pointToScale(y, this.Y_SCALE);
+    private void drawOverlay() {
+        this.overlayPending.set(false);
+        List<List<SensorNode>> paths;
+        synchronized (this.paths) {
+            paths = List.copyOf(this.paths);
+        }
+
+        this.overlayGc.clearRect(0, 0, this.overlay.getWidth(), this.overlay.getHeight());
+        for (List<SensorNode> path : paths) {
+            this.drawing.drawPath(this.overlayPainter, path);
+        }
     }
 
-    private double pointToScale(double val, double scale) {
-//        Pixels -> Real
-//        return ((val - 40) / 50) * increment;
-        return (50 * val) / scale + 40;
+    /* Runs right away on the FX thread, and is queued onto it from any other thread */
+    private static void runOnFxThread(Runnable action) {
+        if (Platform.isFxApplicationThread()) {
+            action.run();
+        } else {
+            Platform.runLater(action);
+        }
+    }
+
+    /**
+     * Sets the most nodes a network can have to be drawn with its connections, nodes and labels,
+     * and redraws the network; larger networks are drawn as a heatmap of their nodes.
+     *
+     * @param detailThreshold the most nodes to draw in detail
+     */
+    public void setDetailThreshold(int detailThreshold) {
+        this.drawing.setDetailThreshold(detailThreshold);
+        runOnFxThread(() -> {
+            this.gc.clearRect(0, 0, this.canvas.getWidth(), this.canvas.getHeight());
+            this.drawing.drawAxis(this.painter);
+            this.drawing.drawNetwork(this.painter);
+        });
     }
 
     /**
      * Saves an image of the Pane
      *
+     * <p></p>
+     *
+     * This needs a shown stage and must be called on the JavaFX Application Thread;
+     * use NetworkRenderer to save images without JavaFX.
+     *
      * @param fileName the path to the png file to save to
      */
     public void saveAsPng(String fileName) {
@@ -225,4 +169,62 @@ public class SensorNetworkGraph extends Pane {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Paints on a JavaFX canvas.
+     */
+    private static final class FxPainter implements Painter {
+        private final GraphicsContext gc;
+
+        FxPainter(GraphicsContext gc) {
+            this.gc = gc;
+        }
+
+        @Override
+        public void setStroke(int rgb) {
+            this.gc.setStroke(Color.rgb((rgb >> 16) & 0xFF, (rgb >> 8) & 0xFF, rgb & 0xFF));
+        }
+
+        @Override
+        public void setLineWidth(double width) {
+            this.gc.setLineWidth(width);
+        }
+
+        @Override
+        public void beginPath() {
+            this.gc.beginPath();
+        }
+
+        @Override
+        public void moveTo(double x, double y) {
+            this.gc.moveTo(x, y);
+        }
+
+        @Override
+        public void lineTo(double x, double y) {
+            this.gc.lineTo(x, y);
+        }
+
+        @Override
+        public void stroke() {
+            this.gc.stroke();
+        }
+
+        @Override
+        public void strokeOval(double x, double y, double width, double height) {
+            this.gc.strokeOval(x, y, width, height);
+        }
+
+        @Override
+        public void fillRect(double x, double y, double width, double height, int argb) {
+            this.gc.setFill(Color.rgb((argb >> 16) & 0xFF, (argb >> 8) & 0xFF, argb & 0xFF, (argb >>> 24) / 255.0));
+            this.gc.fillRect(x, y, width, height);
+            this.gc.setFill(Color.BLACK);
+        }
+
+        @Override
+        public void fillText(String text, double x, double y) {
+            this.gc.fillText(text, x, y);
+        }
+    }
 }
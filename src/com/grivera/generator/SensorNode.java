@@ -5,23 +5,26 @@ package com.grivera.generator;
  */
 public abstract class SensorNode {
 
-    private static int uuidCounter = 1;
-
-    private int uuid;
+    private final int uuid;
     private final double x, y, tr;
     private String name;
 
-    public SensorNode(double x, double y, double tr, String name) {
+    /**
+     * Creates a Sensor Node. Ids are allocated by the network that owns the node,
+     * so several networks can be built at the same time.
+     *
+     * @param uuid the id of the node in its network (1..N)
+     * @param x the x-coordinate of the node (in meters)
+     * @param y the y-coordinate of the node (in meters)
+     * @param tr the transmission range of the node (in meters)
+     * @param name the name of the node
+     */
+    public SensorNode(int uuid, double x, double y, double tr, String name) {
+        this.uuid = uuid;
         this.x = x;
         this.y = y;
         this.tr = tr;
         this.name = name;
-        this.setUuid();
-    }
-
-    private void setUuid() {
-        this.uuid = uuidCounter;
-        uuidCounter++;
     }
 
     public double getX() {
@@ -44,7 +47,11 @@ public abstract class SensorNode {
      * of the specified Sensor Node; otherwise false
      */
     public boolean inRangeOf(SensorNode o) {
-        return this.distanceTo(o) <= Math.min(this.tr, o.tr) + 0.0001;
+        return inRange(this.x, this.y, o.x, o.y, Math.min(this.tr, o.tr));
+    }
+
+    static boolean inRange(double x1, double y1, double x2, double y2, double tr) {
+        return distance(x1, y1, x2, y2) <= tr + 0.0001;
     }
 
     /**
@@ -54,7 +61,11 @@ public abstract class SensorNode {
      * @return the distance between the two nodes (in meters)
      */
     public double distanceTo(SensorNode o) {
-        return Math.sqrt(Math.pow(this.x - o.x, 2) + Math.pow(this.y - o.y, 2));
+        return distance(this.x, this.y, o.x, o.y);
+    }
+
+    static double distance(double x1, double y1, double x2, double y2) {
+        return Math.sqrt(Math.pow(x1 - x2, 2) + Math.pow(y1 - y2, 2));
     }
 
     @Override
@@ -79,9 +90,5 @@ public abstract class SensorNode {
         return this.getName().hashCode();
     }
 
-    public static void resetCounter() {
-        uuidCounter = 1;
-    }
-
     public abstract void resetPackets();
 }
@@ -0,0 +1,31 @@
+package com.grivera.generator;
+
+import com.grivera.util.BucketQueue;
+import com.grivera.util.IndexedMinHeap;
+import com.grivera.util.IntPriorityQueue;
+
+/**
+ * Represents the priority queue a SensorNetwork's shortest-path searches are run with.
+ *
+ * @see SensorNetwork#setShortestPathAlgorithm(ShortestPathAlgorithm)
+ */
+public enum ShortestPathAlgorithm {
+
+    /**
+     * Dijkstra's algorithm with an indexed 4-ary heap; best on sparse networks with few equal-cost edges.
+     */
+    HEAP,
+
+    /**
+     * Dial's algorithm with a circular bucket per integer cost; it needs no comparisons between keys, but scans
+     * the empty buckets between them. In local benchmarks it was never consistently faster than HEAP.
+     */
+    DIAL;
+
+    IntPriorityQueue createQueue(int capacity, int maxEdgeCost) {
+        return switch (this) {
+            case HEAP -> new IndexedMinHeap(capacity);
+            case DIAL -> new BucketQueue(capacity, maxEdgeCost);
+        };
+    }
+}
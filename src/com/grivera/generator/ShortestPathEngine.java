@@ -0,0 +1,156 @@
+package com.grivera.generator;
+
+import com.grivera.util.IntPriorityQueue;
+import com.grivera.util.Metrics;
+
+import java.util.Arrays;
+
+/**
+ * Represents a reusable Dijkstra search over a CsrGraph that keeps all of its state in primitive arrays,
+ * so repeated queries do not allocate. The priority queue is chosen by the ShortestPathAlgorithm.
+ *
+ * <p></p>
+ *
+ * Point-to-point searches run A*, guided by CsrGraph's lower bound on the cost left to the target,
+ * so they settle far fewer nodes than a plain Dijkstra search on large networks.
+ *
+ * <p></p>
+ *
+ * An engine is not thread-safe; each thread should use its own engine.
+ *
+ * @see CsrGraph
+ * @see ShortestPathAlgorithm
+ */
+final class ShortestPathEngine {
+
+    private final CsrGraph graph;
+    private final IntPriorityQueue queue;
+    private final int[] dist;
+    private final int[] prev;
+    private final int[] bound;
+    private final int[] reached;
+    private int stamp;
+    private int settledCount;
+
+    ShortestPathEngine(CsrGraph graph, ShortestPathAlgorithm algorithm) {
+        this.graph = graph;
+        /* A* keys can grow by up to one extra cheapest hop per edge */
+        this.queue = algorithm.createQueue(graph.getNodeCount() + 1, graph.getMaxCost() + graph.getMinCost());
+        this.dist = new int[graph.getNodeCount() + 1];
+        this.prev = new int[graph.getNodeCount() + 1];
+        this.bound = new int[graph.getNodeCount() + 1];
+        this.reached = new int[graph.getNodeCount() + 1];
+    }
+
+    /**
+     * Finds the min-cost from the source to every node.
+     *
+     * @param source the uuid of the starting node
+     */
+    void searchFrom(int source) {
+        this.search(source, 0);
+    }
+
+    /**
+     * Finds the min-cost from the source to the target with A*, stopping as soon as the target is settled.
+     * Only the distances of the nodes on the path to the target are guaranteed to be min-costs.
+     *
+     * @param source the uuid of the starting node
+     * @param target the uuid of the ending node
+     */
+    void searchTo(int source, int target) {
+        this.search(source, target);
+    }
+
+    private void search(int source, int target) {
+        long start = Metrics.start();
+        this.reset();
+        this.reach(source, 0, 0, target);
+        this.queue.insertOrDecrease(source, this.bound[source]);
+
+        int pushes = 1;
+        int curr, neighbor, value;
+        while (!this.queue.isEmpty()) {
+            curr = this.queue.poll();
+            this.settledCount++;
+            if (curr == target) {
+                break;
+            }
+
+            for (int i = this.graph.getStart(curr); i < this.graph.getEnd(curr); i++) {
+                neighbor = this.graph.getNeighbor(i);
+                value = this.dist[curr] + this.graph.getCost(i);
+                if (!this.isReached(neighbor) || value < this.dist[neighbor]) {
+                    this.reach(neighbor, value, curr, target);
+                    this.queue.insertOrDecrease(neighbor, value + this.bound[neighbor]);
+                    pushes++;
+                }
+            }
+        }
+
+        if (Metrics.isEnabled()) {
+            Metrics.stop(Metrics.Phase.PATH_SEARCH, start);
+            Metrics.add(Metrics.Counter.SEARCHES, 1);
+            Metrics.add(Metrics.Counter.SETTLED_NODES, this.settledCount);
+            Metrics.add(Metrics.Counter.HEAP_OPERATIONS, pushes + this.settledCount);
+        }
+    }
+
+    private void reset() {
+        this.queue.clear();
+        this.settledCount = 0;
+        this.stamp++;
+        if (this.stamp == Integer.MAX_VALUE) {
+            Arrays.fill(this.reached, 0);
+            this.stamp = 1;
+        }
+    }
+
+    private void reach(int uuid, int value, int from, int target) {
+        if (!this.isReached(uuid)) {
+            this.bound[uuid] = (target > 0) ? this.graph.lowerBound(uuid, target) : 0;
+        }
+        this.reached[uuid] = this.stamp;
+        this.dist[uuid] = value;
+        this.prev[uuid] = from;
+    }
+
+    /**
+     * Tests whether the last search reached the node.
+     *
+     * @param uuid the uuid of the node
+     * @return true if and only if a path to the node was found; otherwise false
+     */
+    boolean isReached(int uuid) {
+        return this.reached[uuid] == this.stamp;
+    }
+
+    /**
+     * Returns the min-cost to the node found by the last search.
+     *
+     * @param uuid the uuid of the node
+     * @return the min-cost to the node, or 0 if the node was not reached
+     */
+    int getDistance(int uuid) {
+        return this.isReached(uuid) ? this.dist[uuid] : 0;
+    }
+
+    /**
+     * Returns the node before the given node on the min-cost path found by the last search.
+     *
+     * @param uuid the uuid of the node
+     * @return the uuid of the previous node, or 0 if the node is the source or was not reached
+     */
+    int getPrevious(int uuid) {
+        return this.isReached(uuid) ? this.prev[uuid] : 0;
+    }
+
+    /**
+     * Returns the number of nodes removed from the queue by the last search.
+     *
+     * @return the number of settled nodes
+     */
+    int getSettledCount() {
+        return this.settledCount;
+    }
+}
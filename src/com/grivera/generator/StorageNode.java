@@ -7,12 +7,21 @@ package com.grivera.generator;
  */
 public class StorageNode extends SensorNode {
 
-    private static int idCounter = 1;
     private int capacity;
     private int usedSpace;
 
-    public StorageNode(double x, double y, double tr, int capacity) {
-        super(x, y, tr, String.format("SN%02d", idCounter++));
+    /**
+     * Creates a Storage Node.
+     *
+     * @param uuid the id of the node in its network (1..N)
+     * @param id the number in the node's name, i.e. SN01 (1..N-p)
+     * @param x the x-coordinate of the node (in meters)
+     * @param y the y-coordinate of the node (in meters)
+     * @param tr the transmission range of the node (in meters)
+     * @param capacity the number of packets the node can store
+     */
+    public StorageNode(int uuid, int id, double x, double y, double tr, int capacity) {
+        super(uuid, x, y, tr, String.format("SN%02d", id));
         this.setCapacity(capacity);
     }
 
@@ -56,8 +65,4 @@ public class StorageNode extends SensorNode {
     public int getSpaceLeft() {
         return this.capacity - this.usedSpace;
     }
-
-    public static void resetCounter() {
-        idCounter = 1;
-    }
 }
@@ -0,0 +1,143 @@
+package com.grivera.generator;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Paints into an SVG document, one path element per stroke().
+ *
+ * <p></p>
+ *
+ * Every element is written to the writer as soon as it is painted, so a large network is never held as one
+ * document in memory. Painter methods cannot throw, so the first failed write is kept (like PrintWriter does)
+ * and thrown by finish(); nothing more is written after it.
+ */
+final class SvgPainter implements Painter {
+
+    private final Writer out;
+    private final StringBuilder element = new StringBuilder();
+    private final StringBuilder path = new StringBuilder();
+    private String stroke = "#000000";
+    private double lineWidth = 1;
+    private IOException error;
+
+    /**
+     * Starts an SVG document with a white background.
+     *
+     * @param out the writer to write the document to
+     * @param width the width of the document
+     * @param height the height of the document
+     */
+    SvgPainter(Writer out, double width, double height) {
+        this.out = out;
+        this.element.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(width)
+                .append("\" height=\"").append(height).append("\" font-family=\"sans-serif\" font-size=\"12\">\n");
+        this.element.append("<rect width=\"100%\" height=\"100%\" fill=\"#ffffff\"/>\n");
+        this.emit();
+    }
+
+    /* Two decimals are enough for pixels and keep large documents small */
+    private static double round(double val) {
+        return Math.round(val * 100) / 100.0;
+    }
+
+    /* Writes the element built so far and starts the next one */
+    private void emit() {
+        if (this.error == null) {
+            try {
+                this.out.append(this.element);
+            } catch (IOException e) {
+                this.error = e;
+            }
+        }
+        this.element.setLength(0);
+    }
+
+    @Override
+    public void setStroke(int rgb) {
+        this.stroke = String.format("#%06x", rgb & 0xFFFFFF);
+    }
+
+    @Override
+    public void setLineWidth(double width) {
+        this.lineWidth = width;
+    }
+
+    @Override
+    public void beginPath() {
+        this.path.setLength(0);
+    }
+
+    @Override
+    public void moveTo(double x, double y) {
+        this.path.append('M').append(round(x)).append(' ').append(round(y));
+    }
+
+    @Override
+    public void lineTo(double x, double y) {
+        this.path.append('L').append(round(x)).append(' ').append(round(y));
+    }
+
+    @Override
+    public void stroke() {
+        if (this.path.isEmpty()) {
+            return;
+        }
+        this.element.append("<path fill=\"none\" stroke=\"").append(this.stroke)
+                .append("\" stroke-width=\"").append(this.lineWidth)
+                .append("\" d=\"").append(this.path).append("\"/>\n");
+        this.emit();
+    }
+
+    @Override
+    public void strokeOval(double x, double y, double width, double height) {
+        this.element.append("<ellipse fill=\"none\" stroke=\"").append(this.stroke)
+                .append("\" stroke-width=\"").append(this.lineWidth)
+                .append("\" cx=\"").append(round(x + width / 2)).append("\" cy=\"").append(round(y + height / 2))
+                .append("\" rx=\"").append(round(width / 2)).append("\" ry=\"").append(round(height / 2))
+                .append("\"/>\n");
+        this.emit();
+    }
+
+    @Override
+    public void fillRect(double x, double y, double width, double height, int argb) {
+        this.element.append("<rect fill=\"").append(String.format("#%06x", argb & 0xFFFFFF));
+        if ((argb >>> 24) != 0xFF) {
+            this.element.append("\" fill-opacity=\"").append(round((argb >>> 24) / 255.0));
+        }
+        this.element.append("\" x=\"").append(round(x)).append("\" y=\"").append(round(y))
+                .append("\" width=\"").append(round(width)).append("\" height=\"").append(round(height))
+                .append("\"/>\n");
+        this.emit();
+    }
+
+    @Override
+    public void fillText(String text, double x, double y) {
+        this.element.append("<text text-anchor=\"middle\" dominant-baseline=\"central\" x=\"").append(round(x))
+                .append("\" y=\"").append(round(y)).append("\">");
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> this.element.append("&lt;");
+                case '>' -> this.element.append("&gt;");
+                case '&' -> this.element.append("&amp;");
+                default -> this.element.append(c);
+            }
+        }
+        this.element.append("</text>\n");
+        this.emit();
+    }
+
+    /**
+     * Ends the document. The writer is neither flushed nor closed.
+     *
+     * @throws IOException if any part of the document could not be written
+     */
+    void finish() throws IOException {
+        this.element.append("</svg>\n");
+        this.emit();
+        if (this.error != null) {
+            throw this.error;
+        }
+    }
+}
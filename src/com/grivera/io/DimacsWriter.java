@@ -0,0 +1,218 @@
+package com.grivera.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Represents a buffered writer for min-cost flow problems in the <b>DIMAC</b> format.
+ *
+ * <p></p>
+ *
+ * Lines are formatted straight into a byte buffer with hand-rolled integer formatting, so writing an arc
+ * does not allocate. The output can go to any OutputStream or WritableByteChannel, such as a file or
+ * the standard input of a solver process.
+ */
+public final class DimacsWriter implements Closeable {
+
+    private static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    /* Longest line written by arc(): "a " plus five longs, separators and newline */
+    private static final int MAX_ARC_LINE = 2 + 5 * 21;
+
+    private final OutputStream out;
+    private final WritableByteChannel channel;
+    private final byte[] buffer;
+    private final ByteBuffer byteBuffer;
+    private final byte[] digits = new byte[20];
+    private int position;
+    private long bytesWritten;
+
+    public DimacsWriter(OutputStream out) {
+        this(out, null, DEFAULT_BUFFER_SIZE);
+    }
+
+    public DimacsWriter(WritableByteChannel channel) {
+        this(null, channel, DEFAULT_BUFFER_SIZE);
+    }
+
+    public DimacsWriter(WritableByteChannel channel, int bufferSize) {
+        this(null, channel, bufferSize);
+    }
+
+    private DimacsWriter(OutputStream out, WritableByteChannel channel, int bufferSize) {
+        if (bufferSize < MAX_ARC_LINE) {
+            throw new IllegalArgumentException(String.format("Buffer size %d is too small!", bufferSize));
+        }
+        this.out = out;
+        this.channel = channel;
+        this.buffer = new byte[bufferSize];
+        this.byteBuffer = ByteBuffer.wrap(this.buffer);
+    }
+
+    /**
+     * Writes a comment line: c &lt;text&gt;
+     *
+     * @param text the comment (ASCII)
+     */
+    public void comment(String text) throws IOException {
+        this.writeAscii("c ");
+        this.writeAscii(text);
+        this.writeByte('\n');
+    }
+
+    /**
+     * Writes the problem line: p &lt;type&gt; &lt;nodes&gt; &lt;arcs&gt;
+     *
+     * @param type the problem type, i.e. min
+     * @param nodes the number of nodes
+     * @param arcs the number of arcs
+     */
+    public void problem(String type, long nodes, long arcs) throws IOException {
+        this.writeAscii("p ");
+        this.writeAscii(type);
+        this.writeByte(' ');
+        this.writeLong(nodes);
+        this.writeByte(' ');
+        this.writeLong(arcs);
+        this.writeByte('\n');
+    }
+
+    /**
+     * Writes a node descriptor line: n &lt;id&gt; &lt;flow&gt;
+     *
+     * @param id the node id
+     * @param flow the supply (positive) or demand (negative) of the node
+     */
+    public void node(long id, long flow) throws IOException {
+        this.writeAscii("n ");
+        this.writeLong(id);
+        this.writeByte(' ');
+        this.writeLong(flow);
+        this.writeByte('\n');
+    }
+
+    /**
+     * Writes an arc descriptor line: a &lt;tail&gt; &lt;head&gt; &lt;capacity l.b.&gt; &lt;capacity u.b&gt; &lt;cost&gt;
+     */
+    public void arc(long tail, long head, long lowerBound, long upperBound, long cost) throws IOException {
+        if (this.buffer.length - this.position < MAX_ARC_LINE) {
+            this.flushBuffer();
+        }
+        this.buffer[this.position++] = 'a';
+        this.buffer[this.position++] = ' ';
+        this.putLong(tail);
+        this.buffer[this.position++] = ' ';
+        this.putLong(head);
+        this.buffer[this.position++] = ' ';
+        this.putLong(lowerBound);
+        this.buffer[this.position++] = ' ';
+        this.putLong(upperBound);
+        this.buffer[this.position++] = ' ';
+        this.putLong(cost);
+        this.buffer[this.position++] = '\n';
+    }
+
+    /**
+     * Writes an empty line.
+     */
+    public void blankLine() throws IOException {
+        this.writeByte('\n');
+    }
+
+    /**
+     * Returns the number of bytes written so far, including bytes still in the buffer.
+     *
+     * @return the number of bytes written
+     */
+    public long getBytesWritten() {
+        return this.bytesWritten + this.position;
+    }
+
+    private void writeAscii(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            this.writeByte(text.charAt(i));
+        }
+    }
+
+    private void writeByte(int b) throws IOException {
+        if (this.position == this.buffer.length) {
+            this.flushBuffer();
+        }
+        this.buffer[this.position++] = (byte) b;
+    }
+
+    private void writeLong(long value) throws IOException {
+        if (this.buffer.length - this.position < 21) {
+            this.flushBuffer();
+        }
+        this.putLong(value);
+    }
+
+    /* Caller guarantees 21 bytes of space (sign and 20 digits) */
+    private void putLong(long value) {
+        if (value == 0) {
+            this.buffer[this.position++] = '0';
+            return;
+        }
+        if (value < 0) {
+            this.buffer[this.position++] = '-';
+        }
+
+        /* Digits are collected from the negative value so Long.MIN_VALUE does not overflow */
+        long n = (value < 0) ? value : -value;
+        int count = 0;
+        while (n != 0) {
+            this.digits[count++] = (byte) ('0' - (n % 10));
+            n /= 10;
+        }
+        while (count > 0) {
+            this.buffer[this.position++] = this.digits[--count];
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (this.position == 0) {
+            return;
+        }
+
+        if (this.channel != null) {
+            this.byteBuffer.clear().limit(this.position);
+            while (this.byteBuffer.hasRemaining()) {
+                this.channel.write(this.byteBuffer);
+            }
+        } else {
+            this.out.write(this.buffer, 0, this.position);
+        }
+        this.bytesWritten += this.position;
+        this.position = 0;
+    }
+
+    /**
+     * Writes any buffered lines to the underlying stream or channel.
+     */
+    public void flush() throws IOException {
+        this.flushBuffer();
+        if (this.out != null) {
+            this.out.flush();
+        }
+    }
+
+    /**
+     * Flushes and closes the underlying stream or channel.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            this.flush();
+        } finally {
+            if (this.channel != null) {
+                this.channel.close();
+            } else {
+                this.out.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.grivera.io;
+
+/**
+ * Represents the raw contents of a sensor network file: the network parameters and,
+ * for every node in order, its type ('d' for Data Node, 's' for Storage Node) and position.
+ *
+ * @param width the width of the network (in meters)
+ * @param length the length of the network (in meters)
+ * @param transmissionRange the transmission range of the nodes (in meters)
+ * @param dataPacketCount the number of data packets each Data Node has
+ * @param storageCapacity the storage capacity each Storage Node has
+ * @param types the type of each node
+ * @param xs the x-coordinate of each node
+ * @param ys the y-coordinate of each node
+ */
+public record NetworkData(double width, double length, double transmissionRange,
+                          int dataPacketCount, int storageCapacity,
+                          byte[] types, double[] xs, double[] ys) {
+
+    public static final byte DATA_NODE = 'd';
+    public static final byte STORAGE_NODE = 's';
+
+    public NetworkData {
+        if (types.length != xs.length || types.length != ys.length) {
+            throw new IllegalArgumentException("Node types and coordinates must have the same length!");
+        }
+    }
+
+    public int nodeCount() {
+        return this.types.length;
+    }
+
+    public int dataNodeCount() {
+        int p = 0;
+        for (byte type : this.types) {
+            if (type == DATA_NODE) {
+                p++;
+            }
+        }
+        return p;
+    }
+}
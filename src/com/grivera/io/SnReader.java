@@ -0,0 +1,290 @@
+package com.grivera.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads sensor networks in the text .sn format in a single pass over the raw bytes of the file.
+ *
+ * <p></p>
+ *
+ * The file must follow the following format:
+ * <p></p>
+ * width length transmission_range
+ * <p>
+ * data_packets_per_node storage_capacity_per_node
+ * <p>
+ * total_nodes [data_nodes]
+ * <p>
+ * (d/s) x y
+ * <p>
+ * ...
+ */
+public final class SnReader {
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    /* Powers of ten that are exact doubles, so a mantissa of at most 15 digits scales without rounding twice */
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+            1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final int MAX_EXACT_DIGITS = 15;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+    private final byte[] bytes;
+    private int position, limit;
+    private byte[] token = new byte[64];
+    private int tokenLength;
+
+    private SnReader(FileChannel channel) {
+        this.channel = channel;
+        this.bytes = new byte[BUFFER_SIZE];
+        this.buffer = ByteBuffer.wrap(this.bytes);
+    }
+
+    /**
+     * Loads a network from an .sn file.
+     *
+     * @param fileName the path to the .sn file
+     * @return the contents of the file
+     * @throws IOException if the file cannot be read or does not follow the .sn format
+     */
+    public static NetworkData read(String fileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ)) {
+            return new SnReader(channel).readNetwork();
+        }
+    }
+
+    private NetworkData readNetwork() throws IOException {
+        double width = this.nextDouble();
+        double length = this.nextDouble();
+        double tr = this.nextDouble();
+        this.skipLine();
+
+        int q = this.nextInt();
+        int m = this.nextInt();
+        this.skipLine();
+
+        /* The data node count after N is optional */
+        int N = this.nextInt();
+        this.skipLine();
+        if (N < 0) {
+            throw new IOException(String.format("Invalid node count %d!", N));
+        }
+
+        byte[] types = new byte[N];
+        double[] xs = new double[N];
+        double[] ys = new double[N];
+        for (int i = 0; i < N; i++) {
+            if (!this.nextTokenOnLine() || this.tokenLength != 1 ||
+                    (this.token[0] != NetworkData.DATA_NODE && this.token[0] != NetworkData.STORAGE_NODE)) {
+                throw new IOException(String.format("Invalid node type on node line %d!", i + 1));
+            }
+            types[i] = this.token[0];
+
+            if (!this.nextTokenOnLine()) {
+                throw new IOException(String.format("Missing x on node line %d!", i + 1));
+            }
+            xs[i] = this.parseDouble();
+
+            if (!this.nextTokenOnLine()) {
+                throw new IOException(String.format("Missing y on node line %d!", i + 1));
+            }
+            ys[i] = this.parseDouble();
+
+            if (this.nextTokenOnLine()) {
+                throw new IOException(String.format("Too many values on node line %d!", i + 1));
+            }
+            this.skipLine();
+        }
+        return new NetworkData(width, length, tr, q, m, types, xs, ys);
+    }
+
+    private int read() throws IOException {
+        if (this.position == this.limit) {
+            this.buffer.clear();
+            int count = this.channel.read(this.buffer);
+            if (count <= 0) {
+                return -1;
+            }
+            this.position = 0;
+            this.limit = count;
+        }
+        return this.bytes[this.position++] & 0xFF;
+    }
+
+    private void unread() {
+        this.position--;
+    }
+
+    private static boolean isBlank(int b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    /* Reads the next token, skipping blanks and (like Scanner) line breaks */
+    private void nextToken() throws IOException {
+        int b;
+        do {
+            b = this.read();
+        } while (isBlank(b) || b == '\n');
+
+        if (b < 0) {
+            throw new EOFException("Unexpected end of file!");
+        }
+        this.unread();
+        this.readToken();
+    }
+
+    /* Reads the next token on the current line, returning false if the line has no tokens left */
+    private boolean nextTokenOnLine() throws IOException {
+        int b;
+        do {
+            b = this.read();
+        } while (isBlank(b));
+
+        if (b < 0 || b == '\n') {
+            if (b == '\n') {
+                this.unread();
+            }
+            return false;
+        }
+        this.unread();
+        this.readToken();
+        return true;
+    }
+
+    private void readToken() throws IOException {
+        this.tokenLength = 0;
+        int b = this.read();
+        while (b >= 0 && !isBlank(b) && b != '\n') {
+            if (this.tokenLength == this.token.length) {
+                this.token = Arrays.copyOf(this.token, this.token.length * 2);
+            }
+            this.token[this.tokenLength++] = (byte) b;
+            b = this.read();
+        }
+        if (b >= 0) {
+            this.unread();
+        }
+    }
+
+    private void skipLine() throws IOException {
+        int b;
+        do {
+            b = this.read();
+        } while (b >= 0 && b != '\n');
+    }
+
+    private int nextInt() throws IOException {
+        this.nextToken();
+
+        int i = 0;
+        boolean negative = false;
+        if (this.token[0] == '-' || this.token[0] == '+') {
+            negative = this.token[0] == '-';
+            i++;
+        }
+        if (i == this.tokenLength) {
+            throw this.invalidToken("integer");
+        }
+
+        long value = 0;
+        for (; i < this.tokenLength; i++) {
+            int digit = this.token[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw this.invalidToken("integer");
+            }
+            value = value * 10 + digit;
+            if (value > Integer.MAX_VALUE + 1L) {
+                throw this.invalidToken("integer");
+            }
+        }
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            throw this.invalidToken("integer");
+        }
+        return (int) value;
+    }
+
+    private double nextDouble() throws IOException {
+        this.nextToken();
+        return this.parseDouble();
+    }
+
+    /* Parses the current token as a double, giving the same result as Double.parseDouble */
+    private double parseDouble() throws IOException {
+        int i = 0;
+        boolean negative = false;
+        if (this.token[0] == '-' || this.token[0] == '+') {
+            negative = this.token[0] == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int scale = 0;
+        boolean seenDigit = false;
+        boolean seenPoint = false;
+        for (; i < this.tokenLength; i++) {
+            byte b = this.token[i];
+            if (b >= '0' && b <= '9') {
+                seenDigit = true;
+                if (mantissa == 0 && b == '0') {
+                    /* Leading zeros are not significant */
+                    if (seenPoint) {
+                        scale--;
+                    }
+                    continue;
+                }
+                if (digits == MAX_EXACT_DIGITS) {
+                    return this.slowParseDouble();
+                }
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (seenPoint) {
+                    scale--;
+                }
+            } else if (b == '.' && !seenPoint) {
+                seenPoint = true;
+            } else {
+                /* Exponents, NaN, Infinity, hex floats... are rare enough to hand to the JDK */
+                return this.slowParseDouble();
+            }
+        }
+
+        if (!seenDigit) {
+            throw this.invalidToken("number");
+        }
+
+        double value;
+        if (scale == 0 || mantissa == 0) {
+            value = mantissa;
+        } else if (-scale < POWERS_OF_TEN.length) {
+            value = mantissa / POWERS_OF_TEN[-scale];
+        } else {
+            return this.slowParseDouble();
+        }
+        return negative ? -value : value;
+    }
+
+    private double slowParseDouble() throws IOException {
+        try {
+            return Double.parseDouble(new String(this.token, 0, this.tokenLength, StandardCharsets.US_ASCII));
+        } catch (NumberFormatException e) {
+            throw this.invalidToken("number");
+        }
+    }
+
+    private IOException invalidToken(String expected) {
+        return new IOException(String.format("Expected a %s but found \"%s\"!", expected,
+                new String(this.token, 0, this.tokenLength, StandardCharsets.US_ASCII)));
+    }
+}
@@ -0,0 +1,116 @@
+package com.grivera.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes sensor networks in the binary .snb format.
+ *
+ * <p></p>
+ *
+ * The file is big-endian and holds a header followed by one packed record per node:
+ * <p></p>
+ * magic ("SNB1") width length tr (doubles) q m N p (ints)
+ * <p>
+ * type (byte 'd'/'s') x y (doubles)
+ * <p>
+ * ...
+ */
+public final class SnbFile {
+
+    private static final int MAGIC = 0x534E4231;    // "SNB1"
+    private static final int HEADER_SIZE = 4 + 3 * Double.BYTES + 4 * Integer.BYTES;
+    private static final int RECORD_SIZE = 1 + 2 * Double.BYTES;
+    private static final int WRITE_BUFFER_SIZE = 1 << 16;
+
+    private SnbFile() {
+    }
+
+    /**
+     * Loads a network from a .snb file by memory-mapping it.
+     *
+     * @param fileName the path to the .snb file
+     * @return the contents of the file
+     * @throws IOException if the file cannot be read
+     */
+    public static NetworkData read(String fileName) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException(String.format("File \"%s\" is not a .snb file!", fileName));
+            }
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(String.format("File \"%s\" is too large to map!", fileName));
+            }
+
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException(String.format("File \"%s\" is not a .snb file!", fileName));
+            }
+
+            double width = buffer.getDouble();
+            double length = buffer.getDouble();
+            double tr = buffer.getDouble();
+            int q = buffer.getInt();
+            int m = buffer.getInt();
+            int N = buffer.getInt();
+            int p = buffer.getInt();
+            if (N < 0 || p < 0 || p > N || buffer.remaining() != (long) N * RECORD_SIZE) {
+                throw new IOException(String.format("File \"%s\" is corrupted!", fileName));
+            }
+
+            byte[] types = new byte[N];
+            double[] xs = new double[N];
+            double[] ys = new double[N];
+            for (int i = 0; i < N; i++) {
+                types[i] = buffer.get();
+                xs[i] = buffer.getDouble();
+                ys[i] = buffer.getDouble();
+            }
+            return new NetworkData(width, length, tr, q, m, types, xs, ys);
+        }
+    }
+
+    /**
+     * Saves a network into a .snb file.
+     *
+     * @param fileName the path to the file to save to
+     * @param data the network to save
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(String fileName, NetworkData data) throws IOException {
+        try (FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_SIZE);
+            buffer.putInt(MAGIC);
+            buffer.putDouble(data.width());
+            buffer.putDouble(data.length());
+            buffer.putDouble(data.transmissionRange());
+            buffer.putInt(data.dataPacketCount());
+            buffer.putInt(data.storageCapacity());
+            buffer.putInt(data.nodeCount());
+            buffer.putInt(data.dataNodeCount());
+
+            for (int i = 0; i < data.nodeCount(); i++) {
+                if (buffer.remaining() < RECORD_SIZE) {
+                    drain(channel, buffer);
+                }
+                buffer.put(data.types()[i]);
+                buffer.putDouble(data.xs()[i]);
+                buffer.putDouble(data.ys()[i]);
+            }
+            drain(channel, buffer);
+        }
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
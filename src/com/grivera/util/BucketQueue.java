@@ -0,0 +1,174 @@
+package com.grivera.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents Dial's bucket queue of the integers 0..capacity-1 keyed by non-negative int priorities.
+ *
+ * <p></p>
+ *
+ * The queue is monotone: keys inserted must never be smaller than the last key polled, and all keys in the
+ * queue must lie within maxSpread of each other (e.g. the largest edge cost of a Dijkstra search).
+ * Under these conditions every operation is O(1) amortized, and equal keys share a bucket.
+ *
+ * @see IntPriorityQueue
+ */
+public final class BucketQueue implements IntPriorityQueue {
+
+    private final int[] heads;
+    private final int[] next;
+    private final int[] prev;
+    private final int[] keys;
+    private final boolean[] queued;
+    private int size;
+    private int minKey;
+
+    /**
+     * Creates an empty queue that can hold the items 0..capacity-1.
+     *
+     * @param capacity the number of distinct items
+     * @param maxSpread the largest difference between any two keys in the queue at the same time
+     */
+    public BucketQueue(int capacity, int maxSpread) {
+        if (maxSpread < 0) {
+            throw new IllegalArgumentException(String.format("Invalid key spread %d!", maxSpread));
+        }
+        this.heads = new int[maxSpread + 1];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        this.keys = new int[capacity];
+        this.queued = new boolean[capacity];
+        Arrays.fill(this.heads, -1);
+        this.minKey = -1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean contains(int item) {
+        return this.queued[item];
+    }
+
+    /**
+     * Inserts the item with the given key, or lowers its key if it is already in the queue.
+     *
+     * @param item the item to insert
+     * @param key the priority of the item
+     * @return true if and only if the queue changed; otherwise false
+     */
+    @Override
+    public boolean insertOrDecrease(int item, int key) {
+        if (this.queued[item] && key >= this.keys[item]) {
+            return false;
+        }
+
+        /* The first key after a clear starts the range, later keys are bounded by the last key polled */
+        int minKey = (this.minKey < 0) ? key : this.minKey;
+        if (key < 0 || key < minKey || key - minKey >= this.heads.length) {
+            throw new IllegalArgumentException(
+                    String.format("Key %d is outside of the queue's range [%d, %d]!",
+                            key, minKey, minKey + this.heads.length - 1
+                    )
+            );
+        }
+
+        if (this.queued[item]) {
+            this.unlink(item);
+        } else {
+            this.size++;
+        }
+        this.minKey = minKey;
+        this.keys[item] = key;
+        this.link(item);
+        return true;
+    }
+
+    /**
+     * Returns the smallest key in the queue.
+     *
+     * @return the smallest key in the queue
+     */
+    @Override
+    public int peekKey() {
+        if (this.size == 0) {
+            throw new NoSuchElementException("Queue is empty!");
+        }
+        this.advance();
+        return this.minKey;
+    }
+
+    /**
+     * Removes an item with the smallest key.
+     *
+     * @return the removed item
+     */
+    @Override
+    public int poll() {
+        if (this.size == 0) {
+            throw new NoSuchElementException("Queue is empty!");
+        }
+        this.advance();
+
+        int min = this.heads[this.bucketOf(this.minKey)];
+        this.unlink(min);
+        this.size--;
+        return min;
+    }
+
+    /**
+     * Removes all the items in O(maxSpread + size) time.
+     */
+    @Override
+    public void clear() {
+        for (int b = 0; b < this.heads.length; b++) {
+            for (int item = this.heads[b]; item >= 0; item = this.next[item]) {
+                this.queued[item] = false;
+            }
+            this.heads[b] = -1;
+        }
+        this.size = 0;
+        this.minKey = -1;
+    }
+
+    private void advance() {
+        while (this.heads[this.bucketOf(this.minKey)] < 0) {
+            this.minKey++;
+        }
+    }
+
+    private int bucketOf(int key) {
+        return key % this.heads.length;
+    }
+
+    private void link(int item) {
+        int bucket = this.bucketOf(this.keys[item]);
+        this.prev[item] = -1;
+        this.next[item] = this.heads[bucket];
+        if (this.heads[bucket] >= 0) {
+            this.prev[this.heads[bucket]] = item;
+        }
+        this.heads[bucket] = item;
+        this.queued[item] = true;
+    }
+
+    private void unlink(int item) {
+        if (this.prev[item] >= 0) {
+            this.next[this.prev[item]] = this.next[item];
+        } else {
+            this.heads[this.bucketOf(this.keys[item])] = this.next[item];
+        }
+        if (this.next[item] >= 0) {
+            this.prev[this.next[item]] = this.prev[item];
+        }
+        this.queued[item] = false;
+    }
+}
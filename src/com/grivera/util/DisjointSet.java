@@ -0,0 +1,112 @@
+package com.grivera.util;
+
+/**
+ * Represents a union-find structure over the integers 0..size-1 with union by size and path halving.
+ */
+public final class DisjointSet {
+
+    private final int[] parents;
+    private final int[] sizes;
+    private int count;
+
+    /**
+     * Creates a disjoint set where every element is in its own set.
+     *
+     * @param size the number of elements
+     */
+    public DisjointSet(int size) {
+        this.parents = new int[size];
+        this.sizes = new int[size];
+        this.reset();
+    }
+
+    /**
+     * Puts every element back into its own set.
+     */
+    public void reset() {
+        for (int i = 0; i < this.parents.length; i++) {
+            this.parents[i] = i;
+            this.sizes[i] = 1;
+        }
+        this.count = this.parents.length;
+    }
+
+    /**
+     * Puts the given elements back into their own sets, leaving every other set as it is.
+     * The elements must make up whole sets, i.e. every element of a set that one of them is in.
+     *
+     * @param elements the elements to split apart
+     * @param length the number of elements to read from the array
+     */
+    public void split(int[] elements, int length) {
+        int roots = 0;
+        for (int k = 0; k < length; k++) {
+            if (this.parents[elements[k]] == elements[k]) {
+                roots++;
+            }
+        }
+        for (int k = 0; k < length; k++) {
+            this.parents[elements[k]] = elements[k];
+            this.sizes[elements[k]] = 1;
+        }
+        this.count += length - roots;
+    }
+
+    /**
+     * Returns the representative element of the set containing the element.
+     *
+     * @param i the element
+     * @return the representative of the element's set
+     */
+    public int find(int i) {
+        while (this.parents[i] != i) {
+            this.parents[i] = this.parents[this.parents[i]];
+            i = this.parents[i];
+        }
+        return i;
+    }
+
+    /**
+     * Merges the sets containing the two elements.
+     *
+     * @param i the first element
+     * @param j the second element
+     * @return true if and only if the two elements were in different sets; otherwise false
+     */
+    public boolean union(int i, int j) {
+        int a = this.find(i);
+        int b = this.find(j);
+        if (a == b) {
+            return false;
+        }
+
+        if (this.sizes[a] < this.sizes[b]) {
+            int tmp = a;
+            a = b;
+            b = tmp;
+        }
+        this.parents[b] = a;
+        this.sizes[a] += this.sizes[b];
+        this.count--;
+        return true;
+    }
+
+    /**
+     * Returns the size of the set containing the element.
+     *
+     * @param i the element
+     * @return the number of elements in the element's set
+     */
+    public int sizeOf(int i) {
+        return this.sizes[this.find(i)];
+    }
+
+    /**
+     * Returns the number of disjoint sets.
+     *
+     * @return the number of sets
+     */
+    public int getCount() {
+        return this.count;
+    }
+}
@@ -0,0 +1,150 @@
+package com.grivera.util;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a 4-ary min-heap of the integers 0..capacity-1 keyed by int priorities,
+ * that supports decrease-key and never allocates after construction.
+ *
+ * @see IntPriorityQueue
+ */
+public final class IndexedMinHeap implements IntPriorityQueue {
+
+    private static final int ARITY = 4;
+
+    private final int[] heap;
+    private final int[] keys;
+    private final int[] positions;
+    private int size;
+
+    /**
+     * Creates an empty heap that can hold the items 0..capacity-1.
+     *
+     * @param capacity the number of distinct items
+     */
+    public IndexedMinHeap(int capacity) {
+        this.heap = new int[capacity];
+        this.keys = new int[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(this.positions, -1);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    @Override
+    public int size() {
+        return this.size;
+    }
+
+    @Override
+    public boolean contains(int item) {
+        return this.positions[item] >= 0;
+    }
+
+    /**
+     * Inserts the item with the given key, or lowers its key if it is already in the heap.
+     *
+     * @param item the item to insert
+     * @param key the priority of the item
+     * @return true if and only if the heap changed; otherwise false
+     */
+    @Override
+    public boolean insertOrDecrease(int item, int key) {
+        int pos = this.positions[item];
+        if (pos < 0) {
+            pos = this.size++;
+        } else if (key >= this.keys[item]) {
+            return false;
+        }
+        this.keys[item] = key;
+        this.siftUp(item, pos);
+        return true;
+    }
+
+    /**
+     * Returns the key of the item with the smallest key.
+     *
+     * @return the smallest key in the heap
+     */
+    @Override
+    public int peekKey() {
+        if (this.size == 0) {
+            throw new NoSuchElementException("Heap is empty!");
+        }
+        return this.keys[this.heap[0]];
+    }
+
+    /**
+     * Removes the item with the smallest key.
+     *
+     * @return the removed item
+     */
+    @Override
+    public int poll() {
+        if (this.size == 0) {
+            throw new NoSuchElementException("Heap is empty!");
+        }
+
+        int min = this.heap[0];
+        this.positions[min] = -1;
+        this.size--;
+        if (this.size > 0) {
+            this.siftDown(this.heap[this.size], 0);
+        }
+        return min;
+    }
+
+    /**
+     * Removes all the items in O(size) time.
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < this.size; i++) {
+            this.positions[this.heap[i]] = -1;
+        }
+        this.size = 0;
+    }
+
+    private void siftUp(int item, int pos) {
+        int key = this.keys[item];
+        int parent;
+        while (pos > 0) {
+            parent = (pos - 1) / ARITY;
+            if (this.keys[this.heap[parent]] <= key) {
+                break;
+            }
+            this.place(this.heap[parent], pos);
+            pos = parent;
+        }
+        this.place(item, pos);
+    }
+
+    private void siftDown(int item, int pos) {
+        int key = this.keys[item];
+        int child, last, best;
+        while ((child = pos * ARITY + 1) < this.size) {
+            last = Math.min(child + ARITY, this.size);
+            best = child;
+            for (int c = child + 1; c < last; c++) {
+                if (this.keys[this.heap[c]] < this.keys[this.heap[best]]) {
+                    best = c;
+                }
+            }
+            if (this.keys[this.heap[best]] >= key) {
+                break;
+            }
+            this.place(this.heap[best], pos);
+            pos = best;
+        }
+        this.place(item, pos);
+    }
+
+    private void place(int item, int pos) {
+        this.heap[pos] = item;
+        this.positions[item] = pos;
+    }
+}
@@ -0,0 +1,17 @@
+package com.grivera.util;
+
+/**
+ * Represents a priority queue of the integers 0..capacity-1 keyed by int priorities, that supports decrease-key.
+ *
+ * @see IndexedMinHeap
+ * @see BucketQueue
+ */
+public interface IntPriorityQueue {
+    boolean isEmpty();
+    int size();
+    boolean contains(int item);
+    boolean insertOrDecrease(int item, int key);    // Returns true if the item was inserted or its key lowered
+    int peekKey();
+    int poll();
+    void clear();
+}
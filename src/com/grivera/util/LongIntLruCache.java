@@ -0,0 +1,232 @@
+package com.grivera.util;
+
+import java.util.Arrays;
+
+/**
+ * Represents a bounded cache from long keys to int values that evicts the least recently used entry when full.
+ *
+ * <p></p>
+ *
+ * Keys and values are kept in primitive arrays, so lookups and inserts do not allocate. The cache is split
+ * into segments by key hash, each with its own lock and its own LRU order, so threads reading different keys
+ * rarely wait on each other. Eviction is per segment, which approximates a global LRU order.
+ */
+public final class LongIntLruCache {
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Segment[] segments;
+    private final int segmentShift;
+    private final int capacity;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param capacity the most entries the cache holds
+     */
+    public LongIntLruCache(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException(String.format("Invalid cache capacity %d!", capacity));
+        }
+        this.capacity = capacity;
+
+        /* A power of two segments with at least 64 entries each, so small caches keep a useful LRU order */
+        int segmentCount = 1;
+        while (segmentCount < MAX_SEGMENTS && segmentCount * 2 * 64 <= capacity) {
+            segmentCount *= 2;
+        }
+        this.segmentShift = 64 - Integer.numberOfTrailingZeros(segmentCount);
+
+        this.segments = new Segment[segmentCount];
+        int remaining = capacity;
+        for (int i = 0; i < segmentCount; i++) {
+            int segmentCapacity = remaining / (segmentCount - i);
+            this.segments[i] = new Segment(segmentCapacity);
+            remaining -= segmentCapacity;
+        }
+    }
+
+    /* Spreads the bits of keys like (from << 32 | to), which differ mostly in their low bits */
+    private static long mix(long key) {
+        key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+        key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return key ^ (key >>> 33);
+    }
+
+    private Segment segmentFor(long hash) {
+        return (this.segments.length == 1) ? this.segments[0] : this.segments[(int) (hash >>> this.segmentShift)];
+    }
+
+    /**
+     * Returns the value of a key and marks the key as recently used.
+     *
+     * @param key the key
+     * @param defaultValue the value to return if the key is not in the cache
+     * @return the cached value, or defaultValue if there is none
+     */
+    public int get(long key, int defaultValue) {
+        long hash = mix(key);
+        return this.segmentFor(hash).get(key, (int) hash, defaultValue);
+    }
+
+    /**
+     * Sets the value of a key, evicting the least recently used key of its segment if the segment is full.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    public void put(long key, int value) {
+        long hash = mix(key);
+        this.segmentFor(hash).put(key, (int) hash, value);
+    }
+
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        for (Segment segment : this.segments) {
+            segment.clear();
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : this.segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    public int getCapacity() {
+        return this.capacity;
+    }
+
+    /**
+     * A fixed number of entry slots with chained hash buckets and a doubly linked LRU list, all as int indexes.
+     */
+    private static final class Segment {
+        private static final int NONE = -1;
+
+        private final long[] keys;
+        private final int[] values;
+        private final int[] buckets;
+        private final int[] chain;
+        private final int[] prev, next;
+        private int head = NONE, tail = NONE;
+        private int size;
+
+        Segment(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new int[capacity];
+            this.chain = new int[capacity];
+            this.prev = new int[capacity];
+            this.next = new int[capacity];
+
+            int bucketCount = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+            this.buckets = new int[bucketCount];
+            Arrays.fill(this.buckets, NONE);
+        }
+
+        synchronized int get(long key, int hash, int defaultValue) {
+            int slot = this.find(key, hash);
+            if (slot == NONE) {
+                return defaultValue;
+            }
+            this.moveToFront(slot);
+            return this.values[slot];
+        }
+
+        synchronized void put(long key, int hash, int value) {
+            int slot = this.find(key, hash);
+            if (slot != NONE) {
+                this.values[slot] = value;
+                this.moveToFront(slot);
+                return;
+            }
+
+            if (this.size < this.keys.length) {
+                slot = this.size++;
+            } else {
+                slot = this.tail;
+                this.unlinkBucket(slot, this.bucketOf(this.keys[slot]));
+                this.unlinkList(slot);
+            }
+
+            this.keys[slot] = key;
+            this.values[slot] = value;
+            int bucket = hash & (this.buckets.length - 1);
+            this.chain[slot] = this.buckets[bucket];
+            this.buckets[bucket] = slot;
+            this.linkFront(slot);
+        }
+
+        synchronized void clear() {
+            Arrays.fill(this.buckets, NONE);
+            this.head = NONE;
+            this.tail = NONE;
+            this.size = 0;
+        }
+
+        synchronized int size() {
+            return this.size;
+        }
+
+        private int bucketOf(long key) {
+            return (int) mix(key) & (this.buckets.length - 1);
+        }
+
+        private int find(long key, int hash) {
+            for (int slot = this.buckets[hash & (this.buckets.length - 1)]; slot != NONE; slot = this.chain[slot]) {
+                if (this.keys[slot] == key) {
+                    return slot;
+                }
+            }
+            return NONE;
+        }
+
+        private void unlinkBucket(int slot, int bucket) {
+            if (this.buckets[bucket] == slot) {
+                this.buckets[bucket] = this.chain[slot];
+                return;
+            }
+            for (int curr = this.buckets[bucket]; curr != NONE; curr = this.chain[curr]) {
+                if (this.chain[curr] == slot) {
+                    this.chain[curr] = this.chain[slot];
+                    return;
+                }
+            }
+        }
+
+        private void moveToFront(int slot) {
+            if (slot != this.head) {
+                this.unlinkList(slot);
+                this.linkFront(slot);
+            }
+        }
+
+        private void unlinkList(int slot) {
+            if (this.prev[slot] != NONE) {
+                this.next[this.prev[slot]] = this.next[slot];
+            } else {
+                this.head = this.next[slot];
+            }
+            if (this.next[slot] != NONE) {
+                this.prev[this.next[slot]] = this.prev[slot];
+            } else {
+                this.tail = this.prev[slot];
+            }
+        }
+
+        private void linkFront(int slot) {
+            this.prev[slot] = NONE;
+            this.next[slot] = this.head;
+            if (this.head != NONE) {
+                this.prev[this.head] = slot;
+            }
+            this.head = slot;
+            if (this.tail == NONE) {
+                this.tail = slot;
+            }
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.grivera.util;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how long each phase of building and exporting a network takes, and counts of the work done in them.
+ *
+ * <p></p>
+ *
+ * Metrics are off by default. While they are off, start() returns 0 without reading the clock and every other
+ * method returns right after checking the flag, so instrumented code runs at the same speed as before.
+ * Recording is thread-safe, so metrics can be enabled for batch and parallel runs too; the time of a phase
+ * that runs on several threads at once is the sum over every thread, i.e. PATH_SEARCH can exceed COST_MATRIX.
+ *
+ * <p></p>
+ *
+ * Usage:
+ * <p></p>
+ * long start = Metrics.start();
+ * <p>
+ * ...
+ * <p>
+ * Metrics.stop(Metrics.Phase.GRAPH_BUILD, start);
+ */
+public final class Metrics {
+
+    /**
+     * A timed phase. Each phase records its total wall time and how many times it ran.
+     */
+    public enum Phase {
+        PLACEMENT,
+        CONNECTIVITY,
+        GRAPH_BUILD,
+        PATH_SEARCH,
+        COST_MATRIX,
+        MIN_COST_FLOW,
+        FILE_READ,
+        FILE_WRITE
+    }
+
+    /**
+     * A count of work done.
+     */
+    public enum Counter {
+        /* Placements tried while generating connected networks */
+        CONNECTIVITY_ATTEMPTS,
+        SEARCHES,
+        SETTLED_NODES,
+        /* Inserts, decreases and polls of the search queues */
+        HEAP_OPERATIONS,
+        ARCS_WRITTEN,
+        BYTES_WRITTEN
+    }
+
+    private static volatile boolean enabled;
+
+    private static final LongAdder[] PHASE_NANOS = createAdders(Phase.values().length);
+    private static final LongAdder[] PHASE_COUNTS = createAdders(Phase.values().length);
+    private static final LongAdder[] COUNTERS = createAdders(Counter.values().length);
+
+    private Metrics() {}
+
+    private static LongAdder[] createAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    public static void enable() {
+        enabled = true;
+    }
+
+    public static void disable() {
+        enabled = false;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Clears every recorded time and count.
+     */
+    public static void reset() {
+        for (LongAdder adder : PHASE_NANOS) {
+            adder.reset();
+        }
+        for (LongAdder adder : PHASE_COUNTS) {
+            adder.reset();
+        }
+        for (LongAdder adder : COUNTERS) {
+            adder.reset();
+        }
+    }
+
+    /**
+     * Starts timing a phase.
+     *
+     * @return the start time to pass to stop, or 0 if metrics are disabled
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Stops timing a phase and records its wall time.
+     *
+     * @param phase the phase that ran
+     * @param start the value returned by start() when the phase began
+     */
+    public static void stop(Phase phase, long start) {
+        if (!enabled || start == 0) {
+            return;
+        }
+        PHASE_NANOS[phase.ordinal()].add(System.nanoTime() - start);
+        PHASE_COUNTS[phase.ordinal()].increment();
+    }
+
+    /**
+     * Adds to a counter.
+     *
+     * @param counter the counter to add to
+     * @param amount the amount to add
+     */
+    public static void add(Counter counter, long amount) {
+        if (enabled) {
+            COUNTERS[counter.ordinal()].add(amount);
+        }
+    }
+
+    /**
+     * Returns the total wall time of every run of a phase.
+     *
+     * @param phase the phase
+     * @return the total time (in nanoseconds)
+     */
+    public static long getNanos(Phase phase) {
+        return PHASE_NANOS[phase.ordinal()].sum();
+    }
+
+    /**
+     * Returns the number of times a phase ran.
+     *
+     * @param phase the phase
+     * @return the number of runs
+     */
+    public static long getCount(Phase phase) {
+        return PHASE_COUNTS[phase.ordinal()].sum();
+    }
+
+    public static long getCount(Counter counter) {
+        return COUNTERS[counter.ordinal()].sum();
+    }
+
+    /**
+     * Prints a table of every phase that ran and of every counter.
+     *
+     * @param out the stream to print to
+     */
+    public static void printSummary(PrintStream out) {
+        out.println("Phase              Runs      Time (ms)");
+        out.println("======================================");
+        for (Phase phase : Phase.values()) {
+            if (getCount(phase) > 0) {
+                out.printf(Locale.ROOT, "%-15s %7d %14.3f\n", phase, getCount(phase), getNanos(phase) / 1e6);
+            }
+        }
+        out.println();
+
+        out.println("Counter                         Count");
+        out.println("======================================");
+        for (Counter counter : Counter.values()) {
+            out.printf(Locale.ROOT, "%-22s %15d\n", counter, getCount(counter));
+        }
+        out.println();
+    }
+
+    /**
+     * Returns every phase and counter as a JSON object, i.e.
+     * {"phases": {"GRAPH_BUILD": {"runs": 1, "millis": 12.5}, ...}, "counters": {"SEARCHES": 40, ...}}
+     *
+     * @return the metrics as JSON
+     */
+    public static String toJson() {
+        StringBuilder json = new StringBuilder("{\"phases\": {");
+        Phase[] phases = Phase.values();
+        for (int i = 0; i < phases.length; i++) {
+            json.append(String.format(Locale.ROOT, "%s\"%s\": {\"runs\": %d, \"millis\": %.3f}",
+                    (i > 0) ? ", " : "", phases[i], getCount(phases[i]), getNanos(phases[i]) / 1e6
+            ));
+        }
+
+        json.append("}, \"counters\": {");
+        Counter[] counters = Counter.values();
+        for (int i = 0; i < counters.length; i++) {
+            json.append(String.format(Locale.ROOT, "%s\"%s\": %d",
+                    (i > 0) ? ", " : "", counters[i], getCount(counters[i])
+            ));
+        }
+        return json.append("}}").toString();
+    }
+}
@@ -0,0 +1,119 @@
+package com.grivera.util;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Represents a uniform grid over a fixed rectangle whose points can be moved one at a time, used to find the
+ * points that may be within a fixed distance of a point without comparing it to every point.
+ *
+ * <p></p>
+ *
+ * Unlike SpatialGrid, which is built once over its points, each cell keeps its points in an intrusive linked
+ * list, so moving a point only unlinks it from one cell and links it into another.
+ *
+ * @see SpatialGrid
+ */
+public final class MutableSpatialGrid {
+
+    /* Keeps the grid from allocating far more cells than there are points on sparse inputs */
+    private static final int MAX_CELLS_PER_POINT = 4;
+
+    private final double cellSize;
+    private final int cols, rows;
+
+    private final int[] head;
+    private final int[] next;
+    private final int[] prev;
+    private final int[] cellOf;
+
+    /**
+     * Creates an empty grid over [0, width] x [0, length].
+     *
+     * @param width the width of the rectangle the points lie in
+     * @param length the length of the rectangle the points lie in
+     * @param distance the largest distance between two points that should be reported as candidates
+     * @param size the number of points, 0..size-1
+     */
+    public MutableSpatialGrid(double width, double length, double distance, int size) {
+        /* Pad the cell slightly so rounding in the cell index can never split an in-range pair by two cells */
+        double cellSize = Math.max(distance, Double.MIN_NORMAL) * 1.000001;
+        long maxCells = (long) MAX_CELLS_PER_POINT * size + 1;
+        while ((Math.floor(width / cellSize) + 1) * (Math.floor(length / cellSize) + 1) > maxCells) {
+            cellSize *= 2;
+        }
+
+        this.cellSize = cellSize;
+        this.cols = (int) (width / cellSize) + 1;
+        this.rows = (int) (length / cellSize) + 1;
+        this.head = new int[this.cols * this.rows];
+        this.next = new int[size];
+        this.prev = new int[size];
+        this.cellOf = new int[size];
+        Arrays.fill(this.head, -1);
+        Arrays.fill(this.cellOf, -1);
+    }
+
+    private int col(double x) {
+        return Math.max(0, Math.min(this.cols - 1, (int) (x / this.cellSize)));
+    }
+
+    private int row(double y) {
+        return Math.max(0, Math.min(this.rows - 1, (int) (y / this.cellSize)));
+    }
+
+    /**
+     * Puts the point at a new position, adding it to the grid if it is not in it yet.
+     *
+     * @param i the point
+     * @param x the new x-coordinate of the point
+     * @param y the new y-coordinate of the point
+     */
+    public void move(int i, double x, double y) {
+        int cell = this.row(y) * this.cols + this.col(x);
+        if (cell == this.cellOf[i]) {
+            return;
+        }
+
+        /* Unlink from the old cell */
+        if (this.cellOf[i] >= 0) {
+            if (this.prev[i] >= 0) {
+                this.next[this.prev[i]] = this.next[i];
+            } else {
+                this.head[this.cellOf[i]] = this.next[i];
+            }
+            if (this.next[i] >= 0) {
+                this.prev[this.next[i]] = this.prev[i];
+            }
+        }
+
+        /* Link at the front of the new cell */
+        this.cellOf[i] = cell;
+        this.prev[i] = -1;
+        this.next[i] = this.head[cell];
+        if (this.head[cell] >= 0) {
+            this.prev[this.head[cell]] = i;
+        }
+        this.head[cell] = i;
+    }
+
+    /**
+     * Visits every point in the same or in an adjacent cell as the position, including a point at the position
+     * itself. The caller is responsible for the exact distance test.
+     *
+     * @param x the x-coordinate of the position
+     * @param y the y-coordinate of the position
+     * @param consumer the consumer to pass each candidate point to
+     */
+    public void forEachCandidate(double x, double y, IntConsumer consumer) {
+        int col = this.col(x);
+        int row = this.row(y);
+        for (int r = Math.max(0, row - 1); r <= Math.min(this.rows - 1, row + 1); r++) {
+            for (int c = Math.max(0, col - 1); c <= Math.min(this.cols - 1, col + 1); c++) {
+                for (int i = this.head[r * this.cols + c]; i >= 0; i = this.next[i]) {
+                    consumer.accept(i);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.grivera.util;
+
+/**
+ * Represents a uniform grid over a set of 2D points that is used to find all pairs of points
+ * that may be within a fixed distance of each other without comparing every pair.
+ *
+ * <p></p>
+ *
+ * Points are bucketed into square cells whose side is at least the search distance, so any
+ * two points within that distance are always in the same or in adjacent cells.
+ */
+public final class SpatialGrid {
+
+    /* Keeps the grid from allocating far more cells than there are points on sparse inputs */
+    private static final int MAX_CELLS_PER_POINT = 4;
+
+    private final double minX, minY;
+    private final double cellSize;
+    private final int cols, rows;
+
+    private final int[] cellStart;
+    private final int[] cellPoints;
+
+    /**
+     * Functional interface for consuming a pair of point indices.
+     */
+    @FunctionalInterface
+    public interface PairConsumer {
+        void accept(int i, int j);
+    }
+
+    /**
+     * Creates the grid over the given points.
+     *
+     * @param xs the x-coordinates of the points
+     * @param ys the y-coordinates of the points
+     * @param distance the largest distance between two points that should be reported as a candidate pair
+     */
+    public SpatialGrid(double[] xs, double[] ys, double distance) {
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Coordinate arrays must have the same length!");
+        }
+
+        int n = xs.length;
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < n; i++) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        if (n == 0) {
+            minX = minY = maxX = maxY = 0;
+        }
+
+        /* Pad the cell slightly so rounding in the cell index can never split an in-range pair by two cells */
+        double cellSize = Math.max(distance, Double.MIN_NORMAL) * 1.000001;
+        long maxCells = (long) MAX_CELLS_PER_POINT * n + 1;
+        while (cellCount(maxX - minX, maxY - minY, cellSize) > maxCells) {
+            cellSize *= 2;
+        }
+
+        this.minX = minX;
+        this.minY = minY;
+        this.cellSize = cellSize;
+        this.cols = (int) ((maxX - minX) / cellSize) + 1;
+        this.rows = (int) ((maxY - minY) / cellSize) + 1;
+
+        /* Counting sort of the points by cell */
+        int[] cellOf = new int[n];
+        this.cellStart = new int[this.cols * this.rows + 1];
+        for (int i = 0; i < n; i++) {
+            cellOf[i] = this.cellIndex(xs[i], ys[i]);
+            this.cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < this.cols * this.rows; c++) {
+            this.cellStart[c + 1] += this.cellStart[c];
+        }
+
+        this.cellPoints = new int[n];
+        int[] fill = new int[this.cols * this.rows];
+        for (int i = 0; i < n; i++) {
+            this.cellPoints[this.cellStart[cellOf[i]] + fill[cellOf[i]]++] = i;
+        }
+    }
+
+    private static double cellCount(double spanX, double spanY, double cellSize) {
+        return (Math.floor(spanX / cellSize) + 1) * (Math.floor(spanY / cellSize) + 1);
+    }
+
+    private int cellIndex(double x, double y) {
+        int col = Math.min(this.cols - 1, (int) ((x - this.minX) / this.cellSize));
+        int row = Math.min(this.rows - 1, (int) ((y - this.minY) / this.cellSize));
+        return row * this.cols + col;
+    }
+
+    /**
+     * Visits every unordered pair of points that lie in the same or in adjacent cells exactly once.
+     * The caller is responsible for the exact distance test.
+     *
+     * @param consumer the consumer to pass each candidate pair to
+     */
+    public void forEachCandidatePair(PairConsumer consumer) {
+        for (int row = 0; row < this.rows; row++) {
+            for (int col = 0; col < this.cols; col++) {
+                int cell = row * this.cols + col;
+
+                /* Pairs inside the cell */
+                for (int a = this.cellStart[cell]; a < this.cellStart[cell + 1]; a++) {
+                    for (int b = a + 1; b < this.cellStart[cell + 1]; b++) {
+                        consumer.accept(this.cellPoints[a], this.cellPoints[b]);
+                    }
+                }
+
+                /* Pairs with the forward half of the neighbouring cells, so each pair is only seen once */
+                this.visitCells(cell, col + 1, row, consumer);
+                this.visitCells(cell, col - 1, row + 1, consumer);
+                this.visitCells(cell, col, row + 1, consumer);
+                this.visitCells(cell, col + 1, row + 1, consumer);
+            }
+        }
+    }
+
+    private void visitCells(int cell, int otherCol, int otherRow, PairConsumer consumer) {
+        if (otherCol < 0 || otherCol >= this.cols || otherRow >= this.rows) {
+            return;
+        }
+
+        int other = otherRow * this.cols + otherCol;
+        for (int a = this.cellStart[cell]; a < this.cellStart[cell + 1]; a++) {
+            for (int b = this.cellStart[other]; b < this.cellStart[other + 1]; b++) {
+                consumer.accept(this.cellPoints[a], this.cellPoints[b]);
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.grivera.generator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that networks generated on several threads at once get their own node ids and names, and that a
+ * seeded sweep gives the same networks with any number of threads.
+ */
+class BatchGeneratorTest {
+
+    private static final NetworkParameters PARAMS = new NetworkParameters(50, 50, 80, 12, 20, 2, 1);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void everyNetworkNumbersItsOwnNodes() {
+        BatchGenerator generator = new BatchGenerator(8);
+        for (SensorNetwork network : generator.generate(PARAMS, 32)) {
+            List<SensorNode> nodes = network.getSensorNodes();
+            for (int index = 0; index < nodes.size(); index++) {
+                assertEquals(index + 1, nodes.get(index).getUuid());
+            }
+            for (int i = 0; i < network.getDataNodes().size(); i++) {
+                assertEquals(String.format("DN%02d", i + 1), network.getDataNodes().get(i).getName());
+            }
+            for (int i = 0; i < network.getStorageNodes().size(); i++) {
+                assertEquals(String.format("SN%02d", i + 1), network.getStorageNodes().get(i).getName());
+            }
+        }
+    }
+
+    @Test
+    void seededSweepIsTheSameWithAnyThreadCount() {
+        List<String> expected = null;
+        for (int threads : new int[] {1, 3, 8}) {
+            BatchGenerator generator = new BatchGenerator(threads);
+            generator.setSeed(14);
+            List<String> networks = new ArrayList<>();
+            for (SensorNetwork network : generator.generate(PARAMS, 16)) {
+                networks.add(describe(network));
+            }
+            if (expected == null) {
+                expected = networks;
+            }
+            assertEquals(expected, networks, threads + " threads");
+        }
+    }
+
+    @Test
+    void seededFilesAreTheSameWithAnyThreadCount() throws IOException {
+        List<NetworkParameters> sweep = List.of(PARAMS, PARAMS, PARAMS, PARAMS, PARAMS, PARAMS);
+        List<Path> expected = null;
+        for (int threads : new int[] {1, 4}) {
+            BatchGenerator generator = new BatchGenerator(threads);
+            generator.setSeed(14);
+            Path out = Files.createDirectory(this.directory.resolve("threads" + threads));
+            List<Path> files = generator.generateAndSave(sweep, out, "net");
+            assertEquals(sweep.size(), files.size());
+
+            if (expected == null) {
+                expected = files;
+                continue;
+            }
+            for (int i = 0; i < files.size(); i++) {
+                assertArrayEquals(Files.readAllBytes(expected.get(i)), Files.readAllBytes(files.get(i)));
+                assertArrayEquals(Files.readAllBytes(expected.get(i).resolveSibling(String.format("net_%04d.inp", i))),
+                        Files.readAllBytes(files.get(i).resolveSibling(String.format("net_%04d.inp", i))));
+            }
+        }
+    }
+
+    private static String describe(SensorNetwork network) {
+        StringBuilder sb = new StringBuilder();
+        for (SensorNode node : network.getSensorNodes()) {
+            sb.append(node.getName()).append(' ').append(node.getX()).append(' ').append(node.getY()).append('\n');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,99 @@
+package com.grivera.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that 16 threads sending packets one at a time to the same 50 Storage Nodes never overfill one,
+ * never drive a counter below 0, and charge exactly the energy of the packets they sent.
+ */
+class ConcurrentPacketSimulationTest {
+
+    private static final int THREADS = 16;
+    private static final int ROUNDS = 5;
+
+    /* What one thread sent: the packets stored on every Storage Node and their energy */
+    private record Sent(int[] stored, long energy) {}
+
+    @Test
+    void sharedStorageNodesNeverOverfill() throws Exception {
+        BatchGenerator generator = new BatchGenerator(1);
+        generator.setSeed(25);
+        /* 50 Data Nodes with 3 packets each and 50 Storage Nodes with just enough space for all of them */
+        SensorNetwork network = generator.generate(new NetworkParameters(50, 50, 100, 12, 50, 3, 3), 1).get(0);
+        int[] dataNodes = network.getDataNodes().stream().mapToInt(SensorNode::getUuid).toArray();
+        int[] storageNodes = network.getStorageNodes().stream().mapToInt(SensorNode::getUuid).toArray();
+        assertEquals(50, storageNodes.length);
+
+        ConcurrentPacketSimulation sim = ConcurrentPacketSimulation.of(network);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < ROUNDS; round++) {
+                sim.reset();
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Sent>> agents = new ArrayList<>(THREADS);
+                for (int t = 0; t < THREADS; t++) {
+                    int first = t;
+                    long seed = round * THREADS + t;
+                    agents.add(pool.submit(() -> {
+                        SplittableRandom rand = new SplittableRandom(seed);
+                        int[] stored = new int[network.getSensorNodes().size() + 1];
+                        long energy = 0;
+                        start.await();
+                        for (int i = first; i < dataNodes.length; i += THREADS) {
+                            int dn = dataNodes[i];
+                            int next = rand.nextInt(storageNodes.length);
+                            while (sim.getPacketsLeft(dn) > 0) {
+                                int sn = storageNodes[next];
+                                if (sim.trySendPackets(dn, sn, 1)) {
+                                    stored[sn]++;
+                                    energy += sim.getCost(dn, sn);
+                                } else {
+                                    next = (next + 1 == storageNodes.length) ? 0 : next + 1;
+                                }
+                                assertTrue(sim.getSpaceLeft(sn) >= 0);
+                                assertTrue(sim.getPacketsLeft(dn) >= 0);
+                            }
+                        }
+                        return new Sent(stored, energy);
+                    }));
+                }
+                start.countDown();
+
+                int[] stored = new int[network.getSensorNodes().size() + 1];
+                long energy = 0;
+                for (Future<Sent> agent : agents) {
+                    Sent sent = agent.get();
+                    for (int uuid = 0; uuid < stored.length; uuid++) {
+                        stored[uuid] += sent.stored()[uuid];
+                    }
+                    energy += sent.energy();
+                }
+
+                for (DataNode dn : network.getDataNodes()) {
+                    assertEquals(0, sim.getPacketsLeft(dn), dn.getName());
+                }
+                for (StorageNode sn : network.getStorageNodes()) {
+                    assertEquals(0, sim.getSpaceLeft(sn), sn.getName());
+                    assertFalse(sim.canSendPackets(network.getDataNodes().get(0), sn, 1));
+                    assertEquals(sn.getCapacity(), stored[sn.getUuid()], sn.getName());
+                }
+                assertEquals(150, sim.getTransferCount());
+                assertEquals(energy, sim.getEnergy());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
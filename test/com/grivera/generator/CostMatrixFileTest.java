@@ -0,0 +1,99 @@
+package com.grivera.generator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that cost matrix sidecar files are only written when asked for, read back unchanged, and ignored once
+ * they no longer match their network.
+ */
+class CostMatrixFileTest {
+
+    @TempDir
+    Path directory;
+
+    private Path save(long seed) throws IOException {
+        Path file = this.directory.resolve("network" + seed + ".sn");
+        SensorNetwork.of(50, 50, 120, 10, 20, 3, 5, GenerationMode.RESAMPLE, seed).writeSn(file.toString());
+        return file;
+    }
+
+    @Test
+    void sidecarIsOnlyWrittenWhenAskedFor() throws IOException {
+        Path file = this.save(1);
+        Path sidecar = Path.of(file + CostMatrixFile.EXTENSION);
+
+        SensorNetwork.from(file.toString()).getCostMatrix();
+        assertFalse(Files.exists(sidecar));
+
+        SensorNetwork network = SensorNetwork.from(file.toString());
+        network.setCostMatrixFile(file.toString());
+        network.getCostMatrix();
+        assertTrue(Files.exists(sidecar));
+    }
+
+    @Test
+    void sidecarIsReadBackUnchanged() throws IOException {
+        Path file = this.save(2);
+        SensorNetwork network = SensorNetwork.from(file.toString());
+        network.setCostMatrixFile(file.toString());
+        CostMatrix computed = network.getCostMatrix();
+
+        byte[] digest = CostMatrixFile.digest(10, network.getSensorNodes());
+        int[] read = CostMatrixFile.read(Path.of(file + CostMatrixFile.EXTENSION), digest,
+                computed.getRowCount(), computed.getColumnCount());
+        assertArrayEquals(computed.getCosts(), read);
+
+        SensorNetwork reloaded = SensorNetwork.from(file.toString(), 1, 20);
+        reloaded.setCostMatrixFile(file.toString());
+        assertArrayEquals(computed.getCosts(), reloaded.getCostMatrix().getCosts());
+    }
+
+    @Test
+    void staleSidecarIsIgnoredAndRewritten() throws IOException {
+        Path file = this.save(3);
+        Path sidecar = Path.of(file + CostMatrixFile.EXTENSION);
+        SensorNetwork network = SensorNetwork.from(file.toString());
+        network.setCostMatrixFile(file.toString());
+        network.getCostMatrix();
+
+        /* Another network saved under the same name, with the first network's sidecar left next to it */
+        Files.copy(this.save(4), file, StandardCopyOption.REPLACE_EXISTING);
+        SensorNetwork other = SensorNetwork.from(file.toString());
+        byte[] digest = CostMatrixFile.digest(10, other.getSensorNodes());
+        assertNull(CostMatrixFile.read(sidecar, digest, other.getDataNodes().size(), other.getStorageNodes().size()));
+
+        other.setCostMatrixFile(file.toString());
+        CostMatrix costs = other.getCostMatrix();
+        assertArrayEquals(CostMatrix.of(other, 1).getCosts(), costs.getCosts());
+        assertArrayEquals(costs.getCosts(), CostMatrixFile.read(sidecar, digest, costs.getRowCount(),
+                costs.getColumnCount()));
+    }
+
+    @Test
+    void digestDependsOnEveryNode() {
+        SensorNetwork network = SensorNetwork.of(50, 50, 120, 10, 20, 3, 5, GenerationMode.RESAMPLE, 5);
+        List<SensorNode> nodes = new ArrayList<>(network.getSensorNodes());
+        byte[] digest = CostMatrixFile.digest(10, nodes);
+
+        SensorNode last = nodes.get(nodes.size() - 1);
+        nodes.set(nodes.size() - 1, new StorageNode(last.getUuid(), 1, last.getX() + 0.001, last.getY(), 10, 5));
+        assertFalse(Arrays.equals(digest, CostMatrixFile.digest(10, nodes)));
+        assertFalse(Arrays.equals(digest, CostMatrixFile.digest(10.5, network.getSensorNodes())));
+        assertEquals(32, digest.length);
+    }
+}
@@ -0,0 +1,64 @@
+package com.grivera.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the parallel cost matrix against one single-source search per Data Node on the calling thread.
+ */
+class CostMatrixTest {
+
+    private static SensorNetwork network(long seed) {
+        return SensorNetwork.of(60, 60, 200, 10, 50, 3, 2, GenerationMode.RESAMPLE, seed);
+    }
+
+    @Test
+    void parallelMatrixMatchesSerialSearches() {
+        for (long seed = 1; seed <= 3; seed++) {
+            SensorNetwork network = network(seed);
+            List<DataNode> dNodes = network.getDataNodes();
+            List<StorageNode> sNodes = network.getStorageNodes();
+
+            for (int parallelism : new int[] {1, 2, 4, 7}) {
+                CostMatrix matrix = CostMatrix.of(network, parallelism);
+                assertEquals(dNodes.size(), matrix.getRowCount());
+                assertEquals(sNodes.size(), matrix.getColumnCount());
+
+                for (int row = 0; row < dNodes.size(); row++) {
+                    int[] costs = network.calculateMinCosts(dNodes.get(row));
+                    for (int col = 0; col < sNodes.size(); col++) {
+                        assertEquals(costs[sNodes.get(col).getUuid()], matrix.getCost(row, col),
+                                "parallelism " + parallelism + ", row " + row + ", col " + col);
+                        assertEquals(matrix.getCost(row, col), matrix.getCost(dNodes.get(row), sNodes.get(col)));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void minCostIsTheSameBeforeAndAfterTheMatrixIsComputed() {
+        SensorNetwork network = network(11);
+        int[][] before = new int[network.getDataNodes().size()][network.getStorageNodes().size()];
+        for (int row = 0; row < before.length; row++) {
+            for (int col = 0; col < before[row].length; col++) {
+                before[row][col] = network.calculateMinCost(
+                        network.getDataNodes().get(row), network.getStorageNodes().get(col)
+                );
+            }
+        }
+
+        CostMatrix matrix = network.getCostMatrix();
+        for (int row = 0; row < before.length; row++) {
+            for (int col = 0; col < before[row].length; col++) {
+                assertEquals(before[row][col], matrix.getCost(row, col));
+                assertEquals(before[row][col], network.calculateMinCost(
+                        network.getDataNodes().get(row), network.getStorageNodes().get(col)
+                ));
+            }
+        }
+    }
+}
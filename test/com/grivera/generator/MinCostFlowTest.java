@@ -0,0 +1,203 @@
+package com.grivera.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks MinCostFlow against a reference solver that routes one packet at a time along a Bellman-Ford shortest
+ * path of an explicit residual network, which is slow but simple enough to trust.
+ */
+class MinCostFlowTest {
+
+    @Test
+    void matchesReferenceOnGeneratedNetworks() {
+        SplittableRandom rand = new SplittableRandom(8);
+        for (long seed = 1; seed <= 20; seed++) {
+            int p = 2 + rand.nextInt(15);
+            int q = 1 + rand.nextInt(5);
+            int m = 1 + rand.nextInt(4);
+            int n = p + Math.max(2, (p * q + m - 1) / m) + rand.nextInt(20);
+            SensorNetwork network = SensorNetwork.of(40, 40, n, 12, p, q, m, GenerationMode.REPAIR, seed);
+
+            MinCostFlow flow = network.calculateMinCostFlow();
+            CostMatrix costs = network.getCostMatrix();
+            int[] supplies = new int[p];
+            Arrays.fill(supplies, q);
+            int[] capacities = new int[n - p];
+            Arrays.fill(capacities, m);
+
+            assertValid(flow, costs, supplies, capacities);
+            assertEquals(referenceCost(costs, supplies, capacities), flow.getTotalCost(), "seed " + seed);
+        }
+    }
+
+    @Test
+    void matchesReferenceOnRandomCosts() {
+        SensorNetwork network = SensorNetwork.of(40, 40, 30, 12, 8, 1, 1, GenerationMode.REPAIR, 1);
+        int p = network.getDataNodes().size();
+        int s = network.getStorageNodes().size();
+        SplittableRandom rand = new SplittableRandom(8);
+
+        for (int trial = 0; trial < 50; trial++) {
+            /* Few distinct costs give many ties between paths, large ones exercise the long distances */
+            int maxCost = (trial % 2 == 0) ? 4 : 1_000_000;
+            int[] values = new int[p * s];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = rand.nextInt(maxCost + 1);
+            }
+            CostMatrix costs = CostMatrix.of(network, values);
+
+            int[] supplies = new int[p];
+            int[] capacities = new int[s];
+            int demand = 0;
+            for (int row = 0; row < p; row++) {
+                supplies[row] = rand.nextInt(6);
+                demand += supplies[row];
+            }
+            for (int col = 0; col < s; col++) {
+                capacities[col] = rand.nextInt(3);
+            }
+            /* Top up the capacities until every packet fits */
+            for (int col = 0; Arrays.stream(capacities).sum() < demand; col = (col + 1) % s) {
+                capacities[col]++;
+            }
+
+            MinCostFlow flow = MinCostFlow.of(costs, supplies, capacities);
+            assertValid(flow, costs, supplies, capacities);
+            assertEquals(referenceCost(costs, supplies, capacities), flow.getTotalCost(), "trial " + trial);
+        }
+    }
+
+    @Test
+    void rejectsInfeasibleNetworks() {
+        SensorNetwork network = SensorNetwork.of(40, 40, 30, 12, 8, 1, 1, GenerationMode.REPAIR, 1);
+        int[] supplies = new int[network.getDataNodes().size()];
+        Arrays.fill(supplies, 10);
+        int[] capacities = new int[network.getStorageNodes().size()];
+        Arrays.fill(capacities, 1);
+        assertThrows(IllegalStateException.class,
+                () -> MinCostFlow.of(network.getCostMatrix(), supplies, capacities)
+        );
+    }
+
+    @Test
+    void matchesReferenceWithCostsNearIntMax() {
+        SensorNetwork network = SensorNetwork.of(40, 40, 12, 60, 6, 1, 1, GenerationMode.REPAIR, 1);
+        int[] choices = {0, 1, Integer.MAX_VALUE / 2, Integer.MAX_VALUE - 1, Integer.MAX_VALUE};
+        int[] supplies = {1, 1, 1, 1, 1, 1};
+        int[] capacities = {1, 1, 1, 1, 1, 1};
+        SplittableRandom rand = new SplittableRandom(8);
+
+        for (int trial = 0; trial < 200; trial++) {
+            int[] values = new int[supplies.length * capacities.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = choices[rand.nextInt(choices.length)];
+            }
+            CostMatrix costs = CostMatrix.of(network, values);
+
+            MinCostFlow flow = MinCostFlow.of(costs, supplies, capacities);
+            assertValid(flow, costs, supplies, capacities);
+            assertEquals(referenceCost(costs, supplies, capacities), flow.getTotalCost(), "trial " + trial);
+        }
+    }
+
+    private static void assertValid(MinCostFlow flow, CostMatrix costs, int[] supplies, int[] capacities) {
+        long total = 0;
+        int[] stored = new int[capacities.length];
+        for (int row = 0; row < supplies.length; row++) {
+            int sent = 0;
+            for (int col = 0; col < capacities.length; col++) {
+                int packets = flow.getFlow(row, col);
+                assertTrue(packets >= 0 && packets <= supplies[row]);
+                sent += packets;
+                stored[col] += packets;
+                total += (long) packets * costs.getCost(row, col);
+            }
+            assertEquals(supplies[row], sent, "row " + row);
+        }
+        for (int col = 0; col < capacities.length; col++) {
+            assertTrue(stored[col] <= capacities[col], "col " + col);
+        }
+        assertEquals(total, flow.getTotalCost());
+    }
+
+    /* Successive shortest paths one packet at a time, with Bellman-Ford over every residual arc */
+    private static long referenceCost(CostMatrix costs, int[] supplies, int[] capacities) {
+        int p = supplies.length;
+        int s = capacities.length;
+        int nodes = p + s + 2;
+        int source = 0;
+        int sink = p + s + 1;
+
+        /* Arcs are stored in pairs, so arc ^ 1 is the reverse of arc */
+        int arcCount = 2 * (p + p * s + s);
+        int[] tail = new int[arcCount];
+        int[] head = new int[arcCount];
+        int[] capacity = new int[arcCount];
+        long[] cost = new long[arcCount];
+        int next = 0;
+        for (int row = 0; row < p; row++) {
+            next = addArc(tail, head, capacity, cost, next, source, 1 + row, supplies[row], 0);
+            for (int col = 0; col < s; col++) {
+                next = addArc(tail, head, capacity, cost, next, 1 + row, 1 + p + col, supplies[row],
+                        costs.getCost(row, col));
+            }
+        }
+        for (int col = 0; col < s; col++) {
+            next = addArc(tail, head, capacity, cost, next, 1 + p + col, sink, capacities[col], 0);
+        }
+
+        long demand = Arrays.stream(supplies).asLongStream().sum();
+        long total = 0;
+        long[] dist = new long[nodes];
+        int[] via = new int[nodes];
+        for (long routed = 0; routed < demand; routed++) {
+            Arrays.fill(dist, Long.MAX_VALUE);
+            Arrays.fill(via, -1);
+            dist[source] = 0;
+            for (int round = 0; round < nodes - 1; round++) {
+                boolean changed = false;
+                for (int arc = 0; arc < arcCount; arc++) {
+                    if (capacity[arc] > 0 && dist[tail[arc]] != Long.MAX_VALUE &&
+                            dist[tail[arc]] + cost[arc] < dist[head[arc]]) {
+                        dist[head[arc]] = dist[tail[arc]] + cost[arc];
+                        via[head[arc]] = arc;
+                        changed = true;
+                    }
+                }
+                if (!changed) {
+                    break;
+                }
+            }
+            if (dist[sink] == Long.MAX_VALUE) {
+                throw new AssertionError("The reference network is not feasible");
+            }
+
+            for (int v = sink; v != source; v = tail[via[v]]) {
+                capacity[via[v]]--;
+                capacity[via[v] ^ 1]++;
+            }
+            total += dist[sink];
+        }
+        return total;
+    }
+
+    private static int addArc(int[] tail, int[] head, int[] capacity, long[] cost, int next,
+                              int from, int to, int cap, long arcCost) {
+        tail[next] = from;
+        head[next] = to;
+        capacity[next] = cap;
+        cost[next] = arcCost;
+        tail[next + 1] = to;
+        head[next + 1] = from;
+        capacity[next + 1] = 0;
+        cost[next + 1] = -arcCost;
+        return next + 2;
+    }
+}
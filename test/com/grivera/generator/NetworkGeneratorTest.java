@@ -0,0 +1,70 @@
+package com.grivera.generator;
+
+import com.grivera.io.NetworkData;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the placements NetworkGenerator reports as connected really are, by a search over every pair of
+ * nodes, including sparse placements that take many repairs.
+ */
+class NetworkGeneratorTest {
+
+    @Test
+    void connectedPlacementsAreConnected() {
+        for (GenerationMode mode : GenerationMode.values()) {
+            for (long seed = 1; seed <= 20; seed++) {
+                /* Sparse enough that most placements need several attempts */
+                NetworkGenerator generator = new NetworkGenerator(40, 40, 150, 4.5, 15, new SplittableRandom(seed));
+                int attempts = generator.placeConnected(mode, 150_000);
+                assertTrue(isConnected(generator.toNetworkData(1, 1)),
+                        mode + ", seed " + seed + ", " + attempts + " attempts");
+            }
+        }
+    }
+
+    @Test
+    void sameSeedGivesTheSamePlacement() {
+        for (GenerationMode mode : GenerationMode.values()) {
+            NetworkData first = place(mode, 5);
+            NetworkData second = place(mode, 5);
+            assertArrayEquals(first.types(), second.types());
+            assertArrayEquals(first.xs(), second.xs());
+            assertArrayEquals(first.ys(), second.ys());
+        }
+    }
+
+    private static NetworkData place(GenerationMode mode, long seed) {
+        NetworkGenerator generator = new NetworkGenerator(40, 40, 150, 4.5, 15, new SplittableRandom(seed));
+        generator.placeConnected(mode, 150_000);
+        return generator.toNetworkData(1, 1);
+    }
+
+    /* Depth-first search comparing every pair of nodes with the same range test as SensorNode.inRangeOf */
+    private static boolean isConnected(NetworkData data) {
+        double[] xs = data.xs();
+        double[] ys = data.ys();
+        int n = xs.length;
+        boolean[] seen = new boolean[n];
+        int[] stack = new int[n];
+        int top = 0;
+        int seenCount = 1;
+        seen[0] = true;
+        stack[top++] = 0;
+        while (top > 0) {
+            int curr = stack[--top];
+            for (int next = 0; next < n; next++) {
+                if (!seen[next] && SensorNode.inRange(xs[curr], ys[curr], xs[next], ys[next], data.transmissionRange())) {
+                    seen[next] = true;
+                    seenCount++;
+                    stack[top++] = next;
+                }
+            }
+        }
+        return seenCount == n;
+    }
+}
@@ -0,0 +1,71 @@
+package com.grivera.generator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that an SVG document streamed into a writer is complete and the same however it is written,
+ * and that a failing writer is reported.
+ */
+class NetworkRendererTest {
+
+    @TempDir
+    Path directory;
+
+    private static SensorNetwork network() {
+        BatchGenerator generator = new BatchGenerator(1);
+        generator.setSeed(21);
+        return generator.generate(new NetworkParameters(50, 50, 40, 15, 10, 2, 1), 1).get(0);
+    }
+
+    @Test
+    void streamedSvgIsCompleteAndSavedTheSame() throws IOException {
+        SensorNetwork network = network();
+        NetworkRenderer renderer = new NetworkRenderer(network, 640, 640);
+        renderer.highlightPath(network.getDataNodes().get(0), network.getStorageNodes().get(0));
+
+        StringWriter out = new StringWriter();
+        renderer.writeSvg(out);
+        String svg = out.toString();
+        assertTrue(svg.startsWith("<svg "));
+        assertTrue(svg.endsWith("</svg>\n"));
+        assertTrue(svg.contains("<ellipse "));
+        assertEquals(svg, renderer.renderSvg());
+
+        Path file = this.directory.resolve("network.svg");
+        renderer.saveAsSvg(file.toString());
+        assertEquals(svg, Files.readString(file, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void failingWriterThrows() {
+        NetworkRenderer renderer = new NetworkRenderer(network(), 640, 640);
+        Writer broken = new Writer() {
+            @Override
+            public void write(char[] chars, int off, int len) throws IOException {
+                throw new IOException("Disk full!");
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        IOException e = assertThrows(IOException.class, () -> renderer.writeSvg(broken));
+        assertEquals("Disk full!", e.getMessage());
+    }
+}
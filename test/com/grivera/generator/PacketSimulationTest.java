@@ -0,0 +1,100 @@
+package com.grivera.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Checks that a simulation charges the same energy and leaves the same packets and space as sending the packets
+ * through the network itself, and that restore() goes back to a snapshot exactly.
+ */
+class PacketSimulationTest {
+
+    private static SensorNetwork network() {
+        BatchGenerator generator = new BatchGenerator(1);
+        generator.setSeed(24);
+        return generator.generate(new NetworkParameters(50, 50, 60, 15, 10, 3, 1), 1).get(0);
+    }
+
+    private static void assertSameState(Network network, PacketSimulation sim) {
+        for (DataNode dn : network.getDataNodes()) {
+            assertEquals(dn.getPacketsLeft(), sim.getPacketsLeft(dn), dn.getName());
+        }
+        for (StorageNode sn : network.getStorageNodes()) {
+            assertEquals(sn.getSpaceLeft(), sim.getSpaceLeft(sn), sn.getName());
+        }
+    }
+
+    @Test
+    void greedyAllocationMatchesTheNetwork() {
+        SensorNetwork network = network();
+        PacketSimulation sim = PacketSimulation.of(network);
+        List<DataNode> dNodes = network.getDataNodes();
+
+        long energy = 0;
+        long halfEnergy = 0;
+        int half = 0;
+        for (int i = 0; i < dNodes.size(); i++) {
+            DataNode dn = dNodes.get(i);
+            if (i == dNodes.size() / 2) {
+                half = sim.snapshot();
+                halfEnergy = energy;
+            }
+            for (StorageNode sn : network.getStorageNodes()) {
+                int packets = Math.min(dn.getPacketsLeft(), sn.getSpaceLeft());
+                if (packets > 0) {
+                    network.sendPackets(dn, sn, packets);
+                    sim.sendPackets(dn, sn, packets);
+                    energy += (long) network.calculateMinCost(dn, sn) * packets;
+                }
+            }
+            assertEquals(0, sim.getPacketsLeft(dn));
+        }
+        assertEquals(energy, sim.getEnergy());
+        assertSameState(network, sim);
+
+        /* Send the first half again through the network to compare against */
+        sim.restore(half);
+        network.resetPackets();
+        for (int i = 0; i < dNodes.size() / 2; i++) {
+            DataNode dn = dNodes.get(i);
+            for (StorageNode sn : network.getStorageNodes()) {
+                int packets = Math.min(dn.getPacketsLeft(), sn.getSpaceLeft());
+                if (packets > 0) {
+                    network.sendPackets(dn, sn, packets);
+                }
+            }
+        }
+        assertEquals(halfEnergy, sim.getEnergy());
+        assertSameState(network, sim);
+
+        sim.reset();
+        network.resetPackets();
+        assertEquals(0, sim.getEnergy());
+        assertEquals(0, sim.getTransferCount());
+        assertSameState(network, sim);
+    }
+
+    @Test
+    void invalidSendsChangeNothing() {
+        SensorNetwork network = network();
+        PacketSimulation sim = PacketSimulation.of(network);
+        DataNode dn = network.getDataNodes().get(0);
+        StorageNode sn = network.getStorageNodes().get(0);
+
+        /* Storage Nodes hold 1 packet and Data Nodes have 3 */
+        assertFalse(sim.trySendPackets(dn.getUuid(), sn.getUuid(), 2));
+        assertFalse(sim.trySendPackets(dn.getUuid(), sn.getUuid(), -1));
+        assertFalse(sim.trySendPackets(sn.getUuid(), dn.getUuid(), 1));
+        assertFalse(sim.trySendPackets(0, sn.getUuid(), 1));
+        assertThrows(IllegalArgumentException.class, () -> sim.sendPackets(dn, sn, 4));
+        assertThrows(IllegalArgumentException.class, () -> sim.restore(1));
+        assertEquals(0, sim.getEnergy());
+        assertEquals(0, sim.getTransferCount());
+        assertSameState(network, sim);
+    }
+}
@@ -0,0 +1,64 @@
+package com.grivera.generator;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks the min-costs of a SensorNetwork against the cost of the min-cost path between the same nodes,
+ * which is how they were found before single-source searches and the cost matrix.
+ */
+class SensorNetworkTest {
+
+    private static SensorNetwork network(long seed) {
+        return SensorNetwork.of(50, 50, 120, 10, 20, 3, 5, GenerationMode.RESAMPLE, seed);
+    }
+
+    @Test
+    void minCostsMatchTheCostOfEveryMinCostPath() {
+        for (long seed = 1; seed <= 5; seed++) {
+            SensorNetwork network = network(seed);
+            for (SensorNode from : network.getSensorNodes()) {
+                int[] costs = network.calculateMinCosts(from);
+                for (SensorNode to : network.getSensorNodes()) {
+                    assertEquals(network.calculateCostOfPath(network.getMinCostPath(from, to)), costs[to.getUuid()],
+                            from.getName() + " -> " + to.getName());
+                }
+            }
+        }
+    }
+
+    @Test
+    void csInpArcCostsMatchTheCostOfEveryMinCostPath() throws IOException {
+        SensorNetwork network = network(7);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        network.saveAsCsInp(out);
+
+        int arcs = 0;
+        int sink = network.getSensorNodes().size() + 1;
+        for (String line : out.toString(StandardCharsets.US_ASCII).split("\n")) {
+            if (!line.startsWith("a ")) {
+                continue;
+            }
+            /* a <tail> <head> <capacity l.b.> <capacity u.b> <cost> */
+            String[] arc = line.split(" ");
+            int tail = Integer.parseInt(arc[1]);
+            int head = Integer.parseInt(arc[2]);
+            if (tail == 0 || head == sink) {
+                continue;
+            }
+
+            List<SensorNode> path = network.getMinCostPath(
+                    network.getSensorNodes().get(tail - 1), network.getSensorNodes().get(head - 1)
+            );
+            assertEquals(network.calculateCostOfPath(path), Integer.parseInt(arc[5]), line);
+            arcs++;
+        }
+        assertEquals(network.getDataNodes().size() * network.getStorageNodes().size(), arcs);
+    }
+}
@@ -0,0 +1,70 @@
+package com.grivera.generator;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks that every ShortestPathAlgorithm finds the same min-costs, and that A* point-to-point searches find the
+ * same min-costs as a plain Dijkstra search to every node.
+ */
+class ShortestPathEngineTest {
+
+    private static SensorNetwork network(double tr, long seed) {
+        return SensorNetwork.of(60, 60, 300, tr, 30, 1, 1, GenerationMode.REPAIR, seed);
+    }
+
+    @Test
+    void heapAndDialFindTheSameMinCosts() {
+        for (double tr : new double[] {6, 12, 24}) {
+            SensorNetwork network = network(tr, 3);
+            ShortestPathEngine heap = new ShortestPathEngine(network.getGraph(), ShortestPathAlgorithm.HEAP);
+            ShortestPathEngine dial = new ShortestPathEngine(network.getGraph(), ShortestPathAlgorithm.DIAL);
+
+            for (int source = 1; source <= 300; source += 7) {
+                heap.searchFrom(source);
+                dial.searchFrom(source);
+                for (int uuid = 1; uuid <= 300; uuid++) {
+                    assertEquals(heap.getDistance(uuid), dial.getDistance(uuid),
+                            "Tr " + tr + ", " + source + " -> " + uuid);
+                }
+            }
+        }
+    }
+
+    @Test
+    void aStarMatchesDijkstra() {
+        for (double tr : new double[] {6, 12, 24}) {
+            SensorNetwork network = network(tr, 5);
+            for (ShortestPathAlgorithm algorithm : ShortestPathAlgorithm.values()) {
+                ShortestPathEngine dijkstra = new ShortestPathEngine(network.getGraph(), algorithm);
+                ShortestPathEngine aStar = new ShortestPathEngine(network.getGraph(), algorithm);
+
+                for (int source = 1; source <= 300; source += 11) {
+                    dijkstra.searchFrom(source);
+                    for (int target = 1; target <= 300; target += 3) {
+                        aStar.searchTo(source, target);
+                        assertEquals(dijkstra.getDistance(target), aStar.getDistance(target),
+                                algorithm + ", Tr " + tr + ", " + source + " -> " + target);
+
+                        /* The path A* returns must cost exactly its distance */
+                        int cost = 0;
+                        for (int curr = target; curr != source; curr = aStar.getPrevious(curr)) {
+                            cost += edgeCost(network.getGraph(), aStar.getPrevious(curr), curr);
+                        }
+                        assertEquals(aStar.getDistance(target), cost);
+                    }
+                }
+            }
+        }
+    }
+
+    private static int edgeCost(CsrGraph graph, int from, int to) {
+        for (int i = graph.getStart(from); i < graph.getEnd(from); i++) {
+            if (graph.getNeighbor(i) == to) {
+                return graph.getCost(i);
+            }
+        }
+        throw new AssertionError(from + " -> " + to + " is not an edge");
+    }
+}
@@ -0,0 +1,85 @@
+package com.grivera.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Checks DimacsWriter byte for byte against the same lines written with PrintWriter.printf,
+ * which is how the .inp files were written before.
+ */
+class DimacsWriterTest {
+
+    private static final long[] EDGE_VALUES = {
+            0, 1, -1, 9, 10, -10, 99, 100, Integer.MAX_VALUE, Integer.MIN_VALUE, Long.MAX_VALUE, Long.MIN_VALUE
+    };
+
+    @Test
+    void matchesPrintfOutput() throws IOException {
+        for (int bufferSize : new int[] {107, 128, 1000, 1 << 16}) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            StringWriter expected = new StringWriter();
+            try (DimacsWriter writer = new DimacsWriter(Channels.newChannel(bytes), bufferSize);
+                 PrintWriter pw = new PrintWriter(expected)) {
+                write(writer, pw);
+            }
+            assertArrayEquals(expected.toString().getBytes(StandardCharsets.US_ASCII), bytes.toByteArray(),
+                    "buffer size " + bufferSize);
+        }
+    }
+
+    @Test
+    void streamAndChannelWriteTheSameBytes() throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        ByteArrayOutputStream channel = new ByteArrayOutputStream();
+        DimacsWriter streamWriter = new DimacsWriter(stream);
+        DimacsWriter channelWriter = new DimacsWriter(Channels.newChannel(channel));
+        write(streamWriter, new PrintWriter(new StringWriter()));
+        write(channelWriter, new PrintWriter(new StringWriter()));
+        streamWriter.flush();
+        channelWriter.flush();
+
+        assertArrayEquals(stream.toByteArray(), channel.toByteArray());
+        assertEquals(stream.size(), streamWriter.getBytesWritten());
+    }
+
+    /* Writes the same lines to both, in the printf formats the .inp writer used */
+    private static void write(DimacsWriter writer, PrintWriter pw) throws IOException {
+        writer.comment("Min-Cost flow problem with 12 nodes and 40 arcs (edges)");
+        pw.printf("c Min-Cost flow problem with %d nodes and %d arcs (edges)\n", 12, 40);
+        writer.problem("min", 12, 40);
+        pw.printf("p min %d %d\n", 12, 40);
+        writer.blankLine();
+        pw.print("\n");
+        writer.node(0, 500);
+        pw.printf("n %d %d\n", 0, 500);
+        writer.node(11, -500);
+        pw.printf("n %d %d\n", 11, -500);
+
+        for (long value : EDGE_VALUES) {
+            writer.arc(value, 1, 0, value, value);
+            pw.printf("a %d %d %d %d %d\n", value, 1, 0, value, value);
+        }
+
+        SplittableRandom rand = new SplittableRandom(9);
+        long tail, head, lower, upper, cost;
+        for (int i = 0; i < 5000; i++) {
+            tail = rand.nextInt(100_000);
+            head = rand.nextInt(100_000);
+            lower = 0;
+            upper = rand.nextInt(1000);
+            cost = (i % 3 == 0) ? rand.nextLong() : rand.nextInt(1_000_000);
+            writer.arc(tail, head, lower, upper, cost);
+            pw.printf("a %d %d %d %d %d\n", tail, head, lower, upper, cost);
+        }
+    }
+}
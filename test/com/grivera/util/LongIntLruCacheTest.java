@@ -0,0 +1,145 @@
+package com.grivera.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the cache keeps exactly the entries of a LinkedHashMap in access order while it has one segment,
+ * never holds more than its capacity with several segments, and gives consistent values to concurrent threads.
+ */
+class LongIntLruCacheTest {
+
+    /* The value every test stores for a key, so any value read back can be checked */
+    private static int valueOf(long key) {
+        return (int) (key * 31 + 7);
+    }
+
+    @Test
+    void oneSegmentMatchesLinkedHashMap() {
+        SplittableRandom rand = new SplittableRandom(18);
+        for (int capacity : new int[] {1, 2, 3, 17, 64, 127}) {
+            LongIntLruCache cache = new LongIntLruCache(capacity);
+            Map<Long, Integer> expected = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Integer> eldest) {
+                    return this.size() > capacity;
+                }
+            };
+
+            for (int op = 0; op < 20_000; op++) {
+                /* Keys like (from << 32 | to), from a range about twice the capacity so entries get evicted */
+                long key = ((long) rand.nextInt(4) << 32) | rand.nextInt(capacity / 2 + 1);
+                if (rand.nextBoolean()) {
+                    int value = rand.nextInt();
+                    cache.put(key, value);
+                    expected.put(key, value);
+                } else {
+                    assertEquals(expected.getOrDefault(key, -1).intValue(), cache.get(key, -1), "capacity " + capacity);
+                }
+                assertEquals(expected.size(), cache.size(), "capacity " + capacity);
+            }
+            for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+                assertEquals(entry.getValue().intValue(), cache.get(entry.getKey(), -1), "capacity " + capacity);
+            }
+        }
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedKey() {
+        LongIntLruCache cache = new LongIntLruCache(3);
+        cache.put(1, 10);
+        cache.put(2, 20);
+        cache.put(3, 30);
+        assertEquals(10, cache.get(1, -1));
+        cache.put(4, 40);
+
+        assertEquals(-1, cache.get(2, -1));
+        assertEquals(10, cache.get(1, -1));
+        assertEquals(30, cache.get(3, -1));
+        assertEquals(40, cache.get(4, -1));
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    void severalSegmentsStayWithinCapacity() {
+        for (int capacity : new int[] {128, 1000, 4096, 65536}) {
+            LongIntLruCache cache = new LongIntLruCache(capacity);
+            for (long key = 0; key < capacity * 4L; key++) {
+                cache.put(key, valueOf(key));
+                assertEquals(valueOf(key), cache.get(key, -1));
+                assertTrue(cache.size() <= capacity, "capacity " + capacity);
+            }
+            assertEquals(capacity, cache.getCapacity());
+        }
+    }
+
+    @Test
+    void clearRemovesEveryEntry() {
+        LongIntLruCache cache = new LongIntLruCache(1000);
+        for (long key = 0; key < 2000; key++) {
+            cache.put(key, valueOf(key));
+        }
+        cache.clear();
+        assertEquals(0, cache.size());
+        for (long key = 0; key < 2000; key++) {
+            assertEquals(-1, cache.get(key, -1));
+        }
+
+        cache.put(5, 50);
+        assertEquals(50, cache.get(5, -1));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void invalidCapacityThrows() {
+        assertThrows(IllegalArgumentException.class, () -> new LongIntLruCache(0));
+    }
+
+    @Test
+    void concurrentGetsAndPutsStayConsistent() throws Exception {
+        LongIntLruCache cache = new LongIntLruCache(1024);
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> workers = new ArrayList<>(threads);
+            for (int t = 0; t < threads; t++) {
+                long seed = t;
+                workers.add(pool.submit(() -> {
+                    SplittableRandom rand = new SplittableRandom(seed);
+                    start.await();
+                    for (int op = 0; op < 200_000; op++) {
+                        long key = rand.nextInt(4096);
+                        if (rand.nextInt(4) == 0) {
+                            cache.put(key, valueOf(key));
+                        } else {
+                            int value = cache.get(key, -1);
+                            assertTrue(value == -1 || value == valueOf(key), "key " + key);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertTrue(cache.size() <= cache.getCapacity());
+    }
+}